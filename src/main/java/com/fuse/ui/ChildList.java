@@ -0,0 +1,167 @@
+package com.fuse.ui;
+
+/**
+ * Ordered container for the child nodes of a Node, with constant-time membership checks and removal;
+ * every node remembers its slot in the list of its parent (see Node.childSlot).
+ *
+ * All mutations are synchronized. Iteration is done over snapshot arrays (see toArray), which are cached until
+ * the next mutation, so iterating is allocation-free and not affected by concurrent mutations (like nodes
+ * added or removed by touch callbacks while the list is being iterated).
+ */
+class ChildList {
+
+  static final Node[] EMPTY = new Node[0];
+
+  /** Children in order; removed children leave a null hole until the next compaction */
+  private volatile Node[] slots;
+  /** Number of used slots (including holes) */
+  private int end = 0;
+  private int count = 0;
+  /** Cached result of toArray, null when outdated */
+  private volatile Node[] snapshot = EMPTY;
+
+  ChildList(){
+    this(4);
+  }
+
+  ChildList(int capacity){
+    slots = new Node[capacity];
+  }
+
+  int size(){
+    return count;
+  }
+
+  boolean isEmpty(){
+    return count == 0;
+  }
+
+  boolean contains(Node node){
+    // a match is always right, but compact (which moves nodes within the array) can
+    // make a concurrent unsynchronized check miss a node; only trust negatives under the lock
+    if(isInSlot(node))
+      return true;
+
+    // the (shared) empty list can't contain anything
+    if(slots.length == 0)
+      return false;
+
+    synchronized(this){
+      return isInSlot(node);
+    }
+  }
+
+  private boolean isInSlot(Node node){
+    // slots beyond end are always null
+    Node[] array = slots;
+    int slot = node.childSlot;
+    return slot >= 0 && slot < array.length && array[slot] == node;
+  }
+
+  /** Appends the node, unless it's already in this list */
+  synchronized boolean add(Node node){
+    if(isInSlot(node))
+      return false;
+
+    if(end == slots.length){
+      // reclaim holes before growing
+      if(count < end)
+        compact();
+
+      if(end == slots.length){
+        Node[] grown = new Node[slots.length * 2];
+        System.arraycopy(slots, 0, grown, 0, end);
+        slots = grown;
+      }
+    }
+
+    node.childSlot = end;
+    slots[end++] = node;
+    count++;
+    snapshot = null;
+    return true;
+  }
+
+  synchronized boolean remove(Node node){
+    if(!isInSlot(node))
+      return false;
+
+    slots[node.childSlot] = null;
+    node.childSlot = -1;
+    count--;
+    snapshot = null;
+
+    if(count == 0){
+      end = 0;
+    } else if(end - count > count){
+      // more holes than children
+      compact();
+    }
+
+    return true;
+  }
+
+  /** @return int - position of the given node in this list, -1 when not in this list */
+  synchronized int indexOf(Node node){
+    if(!isInSlot(node))
+      return -1;
+
+    if(count < end)
+      compact();
+
+    return node.childSlot;
+  }
+
+  /** @return Node - the child at the given position, null when out of range */
+  synchronized Node get(int index){
+    if(index < 0 || index >= count)
+      return null;
+
+    if(count < end)
+      compact();
+
+    return slots[index];
+  }
+
+  /** @return Node[] - all children in order; a cached instance which should be treated as read-only */
+  Node[] toArray(){
+    Node[] result = snapshot;
+    if(result != null)
+      return result;
+
+    synchronized(this){
+      if(snapshot == null){
+        Node[] array = new Node[count];
+        int idx = 0;
+
+        for(int i=0; i<end; i++){
+          if(slots[i] != null)
+            array[idx++] = slots[i];
+        }
+
+        snapshot = array;
+      }
+
+      return snapshot;
+    }
+  }
+
+  /** Removes the holes left by removed children */
+  private void compact(){
+    int idx = 0;
+
+    for(int i=0; i<end; i++){
+      Node node = slots[i];
+      if(node == null)
+        continue;
+
+      node.childSlot = idx;
+      slots[idx++] = node;
+    }
+
+    for(int i=idx; i<end; i++)
+      slots[i] = null;
+
+    end = idx;
+  }
+}
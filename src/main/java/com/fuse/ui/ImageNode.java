@@ -57,6 +57,20 @@ public class ImageNode extends Node {
     super.destroy();
   }
 
+  @Override
+  public void recycle(){
+    super.recycle();
+    // the image isn't removed from the cache, reused nodes are likely to show it again
+    image = null;
+    mode = Mode.NORMAL;
+    autoResizeToImage = false;
+    bClearImageOnDestroy = false;
+    tintColor = tintColorAlpha = null;
+    shaderFragPath = shaderVertPath = null;
+    shader = null;
+    this.alphaState.push((Float v) -> this.updateAlpha());
+  }
+
   /** Draw this node's image at this Node's position */
   @Override public void draw(){
     if(image == null)
@@ -0,0 +1,253 @@
+package com.fuse.ui;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multimap from name to nodes for all nodes of a scene (everything under the same root),
+ * used by the Node's name-based finder methods (getChildWithName, getChildrenWithName, withChild, ...)
+ * to find named offspring without traversing the entire subtree.
+ *
+ * An index is created on the first lookup in a scene and after that kept up-to-date by Node.setName and Node.setParent.
+ * Unnamed nodes aren't indexed; lookups of an empty name traverse the subtree instead.
+ */
+class NameIndex {
+
+  /** Nodes per name; every indexed node knows its position in its list (Node.nameIndexSlot), for constant-time removal */
+  private final Map<String, ArrayList<Node>> nodesByName = new HashMap<>();
+
+  /** @return NameIndex - the index of the scene that the given node is part of, created if necessary */
+  static NameIndex getFor(Node node){
+    NameIndex index = node.nameIndex;
+    if(index != null)
+      return index;
+
+    Node root = node;
+    while(root.getParent() != null)
+      root = root.getParent();
+
+    // multiple (worker) threads might do their first lookup at the same time; only one creates the index
+    synchronized(root){
+      index = root.nameIndex;
+      if(index != null)
+        return index;
+
+      index = new NameIndex();
+
+      // lookups through nodes that already got the index wait for it to be complete
+      synchronized(index){
+        index.registerSubtree(root);
+      }
+    }
+
+    return index;
+  }
+
+  // node hooks // // // // //
+
+  /** Gives the node (and its subtree) the same index membership as the given new parent */
+  static void updateMembership(Node node, Node newParent){
+    NameIndex oldIndex = node.nameIndex;
+    NameIndex newIndex = newParent == null ? null : newParent.nameIndex;
+
+    if(newIndex == oldIndex)
+      return;
+
+    if(oldIndex != null){
+      synchronized(oldIndex){
+        oldIndex.unregisterSubtree(node);
+      }
+    }
+
+    if(newIndex != null){
+      synchronized(newIndex){
+        newIndex.registerSubtree(node);
+      }
+    }
+  }
+
+  static void rename(Node node, String oldName, String newName){
+    NameIndex index = node.nameIndex;
+    if(index == null)
+      return;
+
+    synchronized(index){
+      index.remove(oldName, node);
+      index.add(newName, node);
+    }
+  }
+
+  // lookups // // // // //
+
+  /**
+   * @return Node - the offspring of parent with the given name, found within maxDepth levels (negative for unlimited),
+   * which would be found first when checking all children of a node before checking their offspring (see Node.getChildWithName)
+   */
+  synchronized Node findFirst(Node parent, String name, int maxDepth){
+    List<Node> nodes = isIndexed(name) ? nodesByName.get(name) : findUnindexed(parent, name, maxDepth);
+    if(nodes == null)
+      return null;
+
+    Node result = null;
+
+    for(int i=0; i<nodes.size(); i++){
+      Node n = nodes.get(i);
+      if(isOffspringWithinDepth(parent, n, maxDepth) && (result == null || compare(n, result, true) < 0))
+        result = n;
+    }
+
+    return result;
+  }
+
+  /** Loads all offspring of parent with the given name, found within maxDepth levels (negative for unlimited), in pre-order */
+  synchronized void loadAll(List<Node> targetList, Node parent, String name, int maxDepth){
+    List<Node> nodes = isIndexed(name) ? nodesByName.get(name) : findUnindexed(parent, name, maxDepth);
+    if(nodes == null)
+      return;
+
+    int first = targetList.size();
+
+    for(int i=0; i<nodes.size(); i++){
+      Node n = nodes.get(i);
+      if(isOffspringWithinDepth(parent, n, maxDepth))
+        targetList.add(n);
+    }
+
+    if(targetList.size() - first > 1)
+      targetList.subList(first, targetList.size()).sort((a, b) -> compare(a, b, false));
+  }
+
+  // internals // // // // //
+
+  private void registerSubtree(Node node){
+    node.nameIndex = this;
+    add(node.getName(), node);
+
+    for(Node childNode : node.getChildNodesSnapshot())
+      registerSubtree(childNode);
+  }
+
+  private void unregisterSubtree(Node node){
+    if(node.nameIndex == this){
+      remove(node.getName(), node);
+      node.nameIndex = null;
+    }
+
+    for(Node childNode : node.getChildNodesSnapshot())
+      unregisterSubtree(childNode);
+  }
+
+  private static boolean isIndexed(String name){
+    return name != null && !name.isEmpty();
+  }
+
+  private void add(String name, Node node){
+    if(!isIndexed(name))
+      return;
+
+    ArrayList<Node> nodes = nodesByName.get(name);
+
+    if(nodes == null){
+      nodes = new ArrayList<>(1);
+      nodesByName.put(name, nodes);
+    }
+
+    node.nameIndexSlot = nodes.size();
+    nodes.add(node);
+  }
+
+  private void remove(String name, Node node){
+    if(!isIndexed(name))
+      return;
+
+    ArrayList<Node> nodes = nodesByName.get(name);
+    int slot = node.nameIndexSlot;
+    if(nodes == null || slot < 0 || slot >= nodes.size() || nodes.get(slot) != node)
+      return;
+
+    // move the last node into the freed slot
+    Node last = nodes.remove(nodes.size() - 1);
+    if(last != node){
+      nodes.set(slot, last);
+      last.nameIndexSlot = slot;
+    }
+
+    node.nameIndexSlot = -1;
+
+    if(nodes.isEmpty())
+      nodesByName.remove(name);
+  }
+
+  /** @return List - the offspring of parent with the given (unindexed) name, within maxDepth levels */
+  private static List<Node> findUnindexed(Node parent, String name, int maxDepth){
+    List<Node> result = new ArrayList<>();
+    collect(result, parent, name, 0, maxDepth);
+    return result;
+  }
+
+  private static void collect(List<Node> targetList, Node parent, String name, int depth, int maxDepth){
+    for(Node childNode : parent.getChildNodesSnapshot()){
+      String childName = childNode.getName();
+      if(name == null ? childName == null : name.equals(childName))
+        targetList.add(childNode);
+
+      if(maxDepth < 0 || depth < maxDepth)
+        collect(targetList, childNode, name, depth + 1, maxDepth);
+    }
+  }
+
+  private static boolean isOffspringWithinDepth(Node parent, Node n, int maxDepth){
+    int depth = 0;
+
+    for(Node p = n.getParent(); p != null; p = p.getParent()){
+      if(maxDepth >= 0 && depth > maxDepth)
+        return false;
+
+      if(p == parent)
+        return true;
+
+      depth++;
+    }
+
+    return false;
+  }
+
+  /**
+   * Compares the position of two nodes in the same tree; ancestors come before their offspring and
+   * earlier siblings (and their offspring) before later ones. When directChildrenFirst is true,
+   * a direct child of the nearest common ancestor comes before the offspring of its siblings.
+   */
+  private static int compare(Node a, Node b, boolean directChildrenFirst){
+    int depthA = 0, depthB = 0;
+    for(Node n = a.getParent(); n != null; n = n.getParent()) depthA++;
+    for(Node n = b.getParent(); n != null; n = n.getParent()) depthB++;
+
+    Node ancestorA = a, ancestorB = b;
+    while(depthA > depthB){ ancestorA = ancestorA.getParent(); depthA--; }
+    while(depthB > depthA){ ancestorB = ancestorB.getParent(); depthB--; }
+
+    // one is an ancestor of the other
+    if(ancestorA == ancestorB)
+      return ancestorA == a ? (a == b ? 0 : -1) : 1;
+
+    while(ancestorA.getParent() != ancestorB.getParent()){
+      ancestorA = ancestorA.getParent();
+      ancestorB = ancestorB.getParent();
+    }
+
+    Node common = ancestorA.getParent();
+    // in separate trees; shouldn't happen within the same index
+    if(common == null)
+      return 0;
+
+    if(directChildrenFirst){
+      boolean directA = ancestorA == a, directB = ancestorB == b;
+      if(directA != directB)
+        return directA ? -1 : 1;
+    }
+
+    return Integer.compare(common.indexOf(ancestorA), common.indexOf(ancestorB));
+  }
+}
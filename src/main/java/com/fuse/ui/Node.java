@@ -5,7 +5,12 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.logging.Logger;
 
 import com.fuse.ui.extensions.ExtensionBase;
 import com.fuse.ui.extensions.TouchEventForwarder;
@@ -38,7 +43,12 @@ public class Node extends TouchReceiver {
   public static void setPGraphics(PGraphics newPg){ pg = newPg; }
   public static PGraphics getPGraphics(){ return pg; }
 
-  private ConcurrentLinkedDeque<Node> childNodes;
+  /** Child nodes; NO_CHILDREN until the first child is added */
+  private ChildList childNodes;
+  /** Shared (always empty) container for nodes without children; never modified */
+  private final static ChildList NO_CHILDREN = new ChildList(0);
+  /** Position of this node in the ChildList of its parent (see ChildList) */
+  int childSlot = -1;
   private Node parentNode;
   /** The name of this node, which can be used to find specific child-nodes */
   private String name;
@@ -47,18 +57,89 @@ public class Node extends TouchReceiver {
   /** Flag that specifies if the node should receive touch events */
   private boolean bInteractive;
   /** Position of the node (pixel based); only the 2D (x and y) attributes are consideren in the for handling touch events */
-  private PVector position;
+  private float positionX, positionY, positionZ;
   /** Size of the node (pixel based); only the 2D (x and y) attributes are consideren in the for handling touch events */
-  private PVector size;
+  private float sizeX, sizeY, sizeZ;
   /** Rotation of this node along the three axis */
-  private PVector rotation;
+  private float rotationX, rotationY, rotationZ;
   /** Scaling of this node, along the three axis */
-  private PVector scale;
-  /** 3D Matrix that matches with the position, size and rotation attributes */
-  private PMatrix3D localTransformMatrix;
+  private float scaleX = 1.0f, scaleY = 1.0f, scaleZ = 1.0f;
+  /** 3D Matrix that matches with the position, rotation and scale attributes; lazily (re-)built by getLocalTransformMatrix */
+  private PMatrix3D localTransformMatrix = null;
+  /** Flags localTransformMatrix as outdated */
+  private boolean bLocalTransformDirty = true;
+  /** Cached results of getGlobalTransformMatrix, getToLocalMatrix and their -WithoutTranslations counterparts */
+  private PMatrix3D globalTransformMatrix = null,
+    toLocalMatrix = null,
+    globalTransformMatrixWithoutTranslations = null,
+    toLocalWithoutTranslationsMatrix = null;
+  /**
+   * Bitmask of the above cached matrices which are currently up-to-date (see the *_CACHE flags).
+   * A node can only have valid caches if its parent has valid caches, so when this is zero,
+   * it's zero for the entire subtree as well. During parallel updates the caches (and bLocalTransformDirty)
+   * are only filled and invalidated while holding the node's monitor, see setParallelUpdate.
+   */
+  private int validTransformCaches = 0;
+  private final static int GLOBAL_CACHE = 1;
+  private final static int TO_LOCAL_CACHE = 2;
+  private final static int GLOBAL_WITHOUT_TRANSLATIONS_CACHE = 4;
+  private final static int TO_LOCAL_WITHOUT_TRANSLATIONS_CACHE = 8;
+  /** Cached screen-space bounding box (minX, minY, maxX, maxY) of this node and its offspring, lazily allocated */
+  private float[] subtreeBounds = null;
+  /** Flags subtreeBounds as outdated; a node with outdated bounds always has ancestors with outdated bounds */
+  private boolean bSubtreeBoundsDirty = true;
+  /** When enabled, render() skips nodes that are completely outside the viewport (see setRenderCulling) */
+  private boolean bRenderCulling = false;
+  /** Scratch bounds (0-3) and viewport (4-7) used for culling, lazily allocated by render roots */
+  private float[] renderCullingRects = null;
+  private boolean bRenderViewport = false;
+  private int renderCulledCount = 0;
+  /** Set by render() on nodes that passed culling in the current render pass */
+  private int renderStamp = 0;
+  private static int renderStampCounter = 0;
   /** Makes sure all offspring Nodes only render within this node's boundaries */
   private Node clippingNode;
-  private ConcurrentLinkedDeque<ExtensionBase> extensions = null; // TODO; make ConcurrentLinkedDeque, like childNodes
+  private ConcurrentLinkedDeque<ExtensionBase> extensions = null;
+  /** The extensions that get updated every frame; the others are sleeping (see ExtensionBase.canSleep) */
+  private ConcurrentLinkedDeque<ExtensionBase> awakeExtensions = null;
+  /** Registration in the SpatialIndex that contains this node (if any, see TouchManager.enableSpatialIndex) */
+  SpatialIndex.Entry spatialIndexEntry = null;
+  /** Name lookup index of the scene this node is part of (if any, see getChildWithName) */
+  NameIndex nameIndex = null;
+  /** Position of this node in its name's list in the nameIndex (see NameIndex.remove) */
+  int nameIndexSlot = -1;
+  /** Flags nodes attached during bulkAttach, whose notifications haven't been sent yet */
+  private boolean bAttachPending = false;
+
+  /** Attachments made during bulkAttach; their notifications are sent when the outermost bulkAttach call ends */
+  private static class BulkAttach {
+    int depth = 0;
+    List<Node> parents = new ArrayList<>();
+    List<Node> children = new ArrayList<>();
+  }
+
+  private static final ThreadLocal<BulkAttach> bulkAttach = ThreadLocal.withInitial(BulkAttach::new);
+  /** Number of threads currently inside bulkAttach; lets addChild skip the thread-local lookup */
+  private static final AtomicInteger bulkAttachThreadCount = new AtomicInteger(0);
+
+  /** Nodes changed during a batch; their change events are triggered when the outermost batch ends */
+  private static class Batch {
+    int depth = 0;
+    List<Node> nodes = new ArrayList<>();
+  }
+
+  private static final ThreadLocal<Batch> batch = ThreadLocal.withInitial(Batch::new);
+  /** Number of threads currently inside a batch; lets the setters skip the thread-local lookup */
+  private static final AtomicInteger batchThreadCount = new AtomicInteger(0);
+  /** When enabled, change events of all nodes are queued and triggered by flushChangeEvents (see setDeferChangeEvents) */
+  private static volatile boolean bDeferChangeEvents = false;
+  private static final ConcurrentLinkedQueue<Node> deferredChangeNodes = new ConcurrentLinkedQueue<>();
+  /** Bitmask of change events deferred by the current batch or deferred mode (see the *_CHANGE flags) */
+  private byte pendingChangeEvents = 0;
+  private final static int POSITION_CHANGE = 1;
+  private final static int SIZE_CHANGE = 2;
+  private final static int SCALE_CHANGE = 4;
+  private final static int ROTATION_CHANGE = 8;
 
   /** Float-based z-level attribute used for re-ordering Nodes in the render-queue;
    * a higher plane value will put the Node later in the queue, which means
@@ -66,6 +147,15 @@ public class Node extends TouchReceiver {
    */
   private float plane;
 
+  /** Plane-ordered list of visible subtree nodes, maintained for nodes that are used as render root (see render) */
+  private ArrayList<Node> renderList = null;
+  /** Flags renderList as outdated, it's reloaded entirely when it's needed (see getRenderList) */
+  private boolean bRenderListDirty = true;
+  /** Number of times this node has been recycled (see recycle) */
+  private int recycleCount = 0;
+  /** The pool that currently holds this (released) node, if any (see NodePool) */
+  NodePool<?> idlePool = null;
+
   public Event<Node> newParentEvent;
   /** Triggered when a -direct- child is added to this node */
   public Event<Node> newChildEvent;
@@ -82,25 +172,20 @@ public class Node extends TouchReceiver {
 
   /** Comparator for ordering a list of Nodes from lower plane to higher plane (used for rendering) */
   static public Comparator<Node> bottomPlaneFirst = (a,b) -> {
-    return Float.valueOf(a.getPlane()).compareTo(b.getPlane());
+    return Float.compare(a.getPlane(), b.getPlane());
   };
 
   /** Comparator for ordering a list of Nodes from higher plane to lower plane (used by TouchManager) */
   static public Comparator<Node> topPlaneFirst = (a,b) -> {
-    return Float.valueOf(b.getPlane()).compareTo(a.getPlane());
+    return Float.compare(b.getPlane(), a.getPlane());
   };
 
   /** Default constructor; intializes default value (visible, interactive, empty name, position zero, size zero) */
   public Node(){
-    childNodes = new ConcurrentLinkedDeque<Node>();
+    childNodes = NO_CHILDREN;
     parentNode = null;
     bVisible = true;
     bInteractive = true;
-    position = new PVector();
-    size = new PVector();
-    rotation = new PVector();
-    scale = new PVector(1.0f, 1.0f, 1.0f);
-    localTransformMatrix = new PMatrix3D();
     name = "";
     newParentEvent = new Event<>();
     newChildEvent = new Event<>();
@@ -118,6 +203,10 @@ public class Node extends TouchReceiver {
 
   @Override
   public void destroy(){
+    // detach from scenegraph if still connected
+    if(getParent() != null)
+      getParent().removeChild(this);
+
     newParentEvent.destroy();
     newOffspringEvent.destroy();
     newChildEvent.destroy();
@@ -128,17 +217,10 @@ public class Node extends TouchReceiver {
     scaleChangeEvent.destroy();
     transformationEvent.destroy();
 
-    // detach from scenegraph if still connected
-    if(getParent() != null)
-      getParent().removeChild(this);
-
     // recursively destroy this node's subtree
-    while(!childNodes.isEmpty()){
-      Node childNode = childNodes.pollFirst();
-      if(childNode != null) {
-    	this.removeChild(childNode);
-      	childNode.destroy();
-      }
+    for(Node childNode : childNodes.toArray()){
+      this.removeChild(childNode);
+      childNode.destroy();
     }
 
     // cleanup this node's extensions
@@ -152,9 +234,74 @@ public class Node extends TouchReceiver {
       }
 
       this.extensions = null;
+      this.awakeExtensions = null;
+    }
+
+    super.destroy();
+  }
+
+  /**
+   * Resets this node to the state of a newly constructed node so it can be reused (see NodePool),
+   * without reallocating its events; stops and destroys its extensions, detaches it from its parent,
+   * removes (but doesn't recycle) its children, removes all listeners and resets all attributes.
+   * Touch events that still reference this node stop being delivered to it (see getRecycleCount).
+   * Inheriting classes that override this should call super.recycle() first and then reset their own state.
+   */
+  public void recycle(){
+    recycleCount++;
+
+    if(extensions != null){
+      while(true){
+        ExtensionBase ext = extensions.poll();
+        if(ext == null)
+          break;
+        this.stopUsing(ext);
+        ext.destroy();
+      }
     }
 
+    if(getParent() != null)
+      getParent().removeChild(this);
+
+    for(Node childNode : childNodes.toArray())
+      this.removeChild(childNode);
+
+    // destroying an Event only removes its listeners; the instances stay usable
+    newParentEvent.destroy();
+    newOffspringEvent.destroy();
+    newChildEvent.destroy();
+    childRemovedEvent.destroy();
+    positionChangeEvent.destroy();
+    sizeChangeEvent.destroy();
+    rotationChangeEvent.destroy();
+    scaleChangeEvent.destroy();
+    transformationEvent.destroy();
+    alphaState.destroy();
+    alphaState.set(1.0f);
     super.destroy();
+    clearActiveTouchEvents();
+
+    setName("");
+    setVisible(true);
+    bInteractive = true;
+    setPlane(0.0f);
+    positionX = positionY = positionZ = 0.0f;
+    sizeX = sizeY = sizeZ = 0.0f;
+    rotationX = rotationY = rotationZ = 0.0f;
+    scaleX = scaleY = scaleZ = 1.0f;
+    onLocalTransformChange();
+    pendingChangeEvents = 0;
+    bRenderCulling = false;
+    bRenderViewport = false;
+    setClipContent(false);
+    clippingNode = null;
+    updateThrottle = null;
+    bParallelUpdate = false;
+  }
+
+  /** @return int - the number of times this node has been recycled (see recycle) */
+  public int getRecycleCount(){
+    return recycleCount;
   }
 
   public void update(float dt){
@@ -165,11 +312,15 @@ public class Node extends TouchReceiver {
 
     this.update(dt);
 
-    if(extensions!=null){
-      for(ExtensionBase ext : this.extensions) {
+    if(awakeExtensions!=null){
+      for(ExtensionBase ext : this.awakeExtensions) {
         if(ext.isEnabled())
           ext.update(dt);
-        }
+
+        // idle extensions aren't updated until they're woken up again
+        if(!ext.isEnabled() || ext.canSleep())
+          sleepExtension(ext);
+      }
     }
   }
 
@@ -182,7 +333,7 @@ public class Node extends TouchReceiver {
     pg.noFill();
     pg.stroke(clr);
     pg.strokeWeight(1.0f);
-    pg.rect(0.0f, 0.0f, size.x, size.y);
+    pg.rect(0.0f, 0.0f, sizeX, sizeY);
 
     pg.noStroke();
     pg.fill(clr);
@@ -202,7 +353,16 @@ public class Node extends TouchReceiver {
   }
 
   public void setVisible(boolean newVisible){
-     bVisible = newVisible;
+    if(bVisible == newVisible)
+      return;
+
+    if(!newVisible)
+      removeFromRenderLists(this, true);
+
+    bVisible = newVisible;
+
+    if(newVisible)
+      addToRenderLists(this, true);
   }
 
   /// get interactive state (if it responds to touch events)
@@ -222,46 +382,79 @@ public class Node extends TouchReceiver {
   }
 
   public Node setPlane(float newPlane){
-    plane = newPlane;
+    if(plane != newPlane){
+      // planes aren't inherited, so only this node moves in the render lists
+      removeFromRenderLists(this, false);
+      plane = newPlane;
+      addToRenderLists(this, false);
+    }
+
     return this;
   }
 
   public String getName(){
-    return new String(name);
+    return name;
   }
 
   public Node setName(String newName){
+    String oldName = name;
     name = newName;
+
+    if(nameIndex != null)
+      NameIndex.rename(this, oldName, newName);
+
     return this;
   }
 
   public PVector getPosition(){
-    return position.get();
+    return new PVector(positionX, positionY, positionZ);
+  }
+
+  /**
+   * Allocation-free alternative to getPosition()
+   * @param out The vector to copy this node's position into
+   * @return PVector the given out vector
+   */
+  public PVector getPosition(PVector out){
+    out.set(positionX, positionY, positionZ);
+    return out;
   }
 
+  public float getX(){ return positionX; }
+  public float getY(){ return positionY; }
+  public float getZ(){ return positionZ; }
+
   public PVector getGlobalPosition(){
+    return getGlobalPosition(new PVector());
+  }
+
+  /** Allocation-free alternative to getGlobalPosition() */
+  public PVector getGlobalPosition(PVector out){
 	  if(this.parentNode != null) {
-		  return this.parentNode.toGlobal(this.position); // more 'accurate'
+      out.set(positionX, positionY, positionZ);
+		  return this.parentNode.toGlobal(out, out); // more 'accurate'
     }
 
-	  return toGlobal(new PVector(0.0f, 0.0f, 0.0f));
+    out.set(0.0f, 0.0f, 0.0f);
+	  return toGlobal(out, out);
   }
 
   /** @return A PVector which is a translation of the Node's size PVector from local space into screen-space */
   public PVector getGlobalBottomRight(){
-    return toGlobal(size);
+    PVector result = new PVector(sizeX, sizeY, sizeZ);
+    return toGlobal(result, result);
   }
 
   public Node setX(float newX){
-    return setPosition(newX, position.y, position.z);
+    return setPosition(newX, positionY, positionZ);
   }
 
   public Node setY(float newY){
-    return setPosition(position.x, newY, position.z);
+    return setPosition(positionX, newY, positionZ);
   }
 
   public Node setZ(float newZ){
-    return setPosition(position.x, position.y, newZ);
+    return setPosition(positionX, positionY, newZ);
   }
 
   public Node setPosition(PVector newPos){
@@ -273,91 +466,240 @@ public class Node extends TouchReceiver {
   }
 
   public Node setPosition(float x, float y, float z){
-    boolean change = position.x != x || position.y != y || position.z != z;
+    boolean change = positionX != x || positionY != y || positionZ != z;
 
     if(change){
-      position.set(x,y,z);
-      updateLocalTransformMatrix();
-      positionChangeEvent.trigger(this);
-      this.transformationEvent.trigger(this);
+      positionX = x;
+      positionY = y;
+      positionZ = z;
+      onLocalTransformChange();
+      notifyChange(POSITION_CHANGE);
     }
 
     return this;
   }
 
   public PVector getSize(){
-    return size.get();
+    return new PVector(sizeX, sizeY, sizeZ);
+  }
+
+  /** Allocation-free alternative to getSize() */
+  public PVector getSize(PVector out){
+    out.set(sizeX, sizeY, sizeZ);
+    return out;
   }
 
+  public float getWidth(){ return sizeX; }
+  public float getHeight(){ return sizeY; }
+
   public PVector getSizeScaled(){
-    PVector result = size.get();
-    result.x = result.x * scale.x;
-    result.y = result.y * scale.y;
-    result.z = result.z * scale.z;
-    return result;
+    return new PVector(sizeX * scaleX, sizeY * scaleY, sizeZ * scaleZ);
   }
 
   public Node setWidth(float newWidth){
-    return this.setSize(newWidth, size.y);
+    return this.setSize(newWidth, sizeY);
   }
 
   public Node setHeight(float newHeight){
-    return this.setSize(size.x, newHeight);
+    return this.setSize(sizeX, newHeight);
   }
 
   public Node setSize(PVector newSize){
-    if(!size.equals(newSize)){
-      size = newSize.get();
-      sizeChangeEvent.trigger(this);
-      this.transformationEvent.trigger(this);
+    return setSize(newSize.x, newSize.y, newSize.z);
+  }
+
+  public Node setSize(float newWidth, float newHeight, float newDepth){
+    if(sizeX != newWidth || sizeY != newHeight || sizeZ != newDepth){
+      sizeX = newWidth;
+      sizeY = newHeight;
+      sizeZ = newDepth;
+      invalidateSubtreeBounds();
+
+      if(spatialIndexEntry != null)
+        SpatialIndex.invalidate(this);
+
+      notifyChange(SIZE_CHANGE);
     }
 
     return this;
   }
 
   public Node setSize(float newWidth, float newHeight){
-    setSize(new PVector(newWidth, newHeight, 0.0f));
-    return this;
+    return setSize(newWidth, newHeight, 0.0f);
   }
 
   public PVector getScale(){
-    return scale.get();
+    return new PVector(scaleX, scaleY, scaleZ);
   }
 
+  /** Allocation-free alternative to getScale() */
+  public PVector getScale(PVector out){
+    out.set(scaleX, scaleY, scaleZ);
+    return out;
+  }
+
+  public float getScaleX(){ return scaleX; }
+  public float getScaleY(){ return scaleY; }
+  public float getScaleZ(){ return scaleZ; }
+
   public Node setScale(float newScale){
-    return setScale(new PVector(newScale, newScale, 1.0f));
+    return setScale(newScale, newScale, 1.0f);
   }
 
   public Node setScale(PVector newScale){
-    if(!scale.equals(newScale)){
-      scale = newScale.get();
-      updateLocalTransformMatrix();
-      this.scaleChangeEvent.trigger(this);
-      this.transformationEvent.trigger(this);
+    return setScale(newScale.x, newScale.y, newScale.z);
+  }
+
+  public Node setScale(float x, float y, float z){
+    if(scaleX != x || scaleY != y || scaleZ != z){
+      scaleX = x;
+      scaleY = y;
+      scaleZ = z;
+      onLocalTransformChange();
+      notifyChange(SCALE_CHANGE);
     }
 
     return this;
   }
 
-  private void updateLocalTransformMatrix(){
-    localTransformMatrix.reset();
-    localTransformMatrix.translate(position.x, position.y, position.z);
-    localTransformMatrix.rotateX(rotation.x);
-    localTransformMatrix.rotateY(rotation.y);
-    localTransformMatrix.rotateZ(rotation.z);
-    localTransformMatrix.scale(scale.x, scale.y, scale.z);
+  private void onLocalTransformChange(){
+    if(parallelUpdateCount.get() > 0){
+      synchronized(this){
+        bLocalTransformDirty = true;
+      }
+    } else {
+      bLocalTransformDirty = true;
+    }
+
+    onTransformChange();
+  }
+
+  /** @return boolean - true when this node only translates in x/y, rotates around the z-axis and scales (see applyLocalTransform2D) */
+  private boolean isLocalTransform2D(){
+    return rotationX == 0.0f && rotationY == 0.0f && positionZ == 0.0f;
+  }
+
+  /** @return boolean - true when the given matrix is a 2D affine transformation (doesn't mix z into x/y or the other way around) */
+  private static boolean isAffine2D(PMatrix3D mat){
+    return mat.m02 == 0.0f && mat.m12 == 0.0f && mat.m20 == 0.0f && mat.m21 == 0.0f && mat.m23 == 0.0f
+      && mat.m30 == 0.0f && mat.m31 == 0.0f && mat.m32 == 0.0f && mat.m33 == 1.0f;
+  }
+
+  /**
+   * Fast path for applyLocalTransform(WithoutTranslations), only valid when both isLocalTransform2D() and isAffine2D(parent).
+   * Loads parent * local into target using only the 2x3 affine part (and the z-scale) of the matrices,
+   * instead of the full 4x4 multiplications that PMatrix3D's translate/rotate/scale methods perform.
+   * @param parent The matrix to apply the local transformation to, null for identity
+   * @param target The matrix to load the result into, can't be the same instance as parent
+   */
+  private void applyLocalTransform2D(PMatrix3D parent, PMatrix3D target, boolean withTranslations){
+    float c = 1.0f, s = 0.0f;
+
+    if(rotationZ != 0.0f){
+      c = (float)Math.cos(rotationZ);
+      s = (float)Math.sin(rotationZ);
+    }
+
+    float l00 = c * scaleX, l01 = -s * scaleY;
+    float l10 = s * scaleX, l11 = c * scaleY;
+    float tx = withTranslations ? positionX : 0.0f;
+    float ty = withTranslations ? positionY : 0.0f;
+
+    if(parent == null){
+      target.set(
+        l00, l01, 0.0f, tx,
+        l10, l11, 0.0f, ty,
+        0.0f, 0.0f, scaleZ, 0.0f,
+        0.0f, 0.0f, 0.0f, 1.0f);
+      return;
+    }
+
+    target.set(
+      parent.m00*l00 + parent.m01*l10, parent.m00*l01 + parent.m01*l11, 0.0f, parent.m00*tx + parent.m01*ty + parent.m03,
+      parent.m10*l00 + parent.m11*l10, parent.m10*l01 + parent.m11*l11, 0.0f, parent.m10*tx + parent.m11*ty + parent.m13,
+      0.0f, 0.0f, parent.m22 * scaleZ, 0.0f,
+      0.0f, 0.0f, 0.0f, 1.0f);
+  }
+
+  /** Applies (post-multiplies) this node's translation, rotation and scale to the given matrix */
+  private void applyLocalTransform(PMatrix3D mat){
+    if(positionX != 0.0f || positionY != 0.0f || positionZ != 0.0f)
+      mat.translate(positionX, positionY, positionZ);
+
+    applyLocalTransformWithoutTranslations(mat);
+  }
+
+  private void applyLocalTransformWithoutTranslations(PMatrix3D mat){
+    if(rotationX != 0.0f)
+      mat.rotateX(rotationX);
+    if(rotationY != 0.0f)
+      mat.rotateY(rotationY);
+    if(rotationZ != 0.0f)
+      mat.rotateZ(rotationZ);
+    if(scaleX != 1.0f || scaleY != 1.0f || scaleZ != 1.0f)
+      mat.scale(scaleX, scaleY, scaleZ);
+  }
+
+  /** Invalidates all cached data that depends on the (global) transformation of this node */
+  private void onTransformChange(){
+    markGlobalTransformDirty();
+
+    if(parentNode != null)
+      parentNode.invalidateSubtreeBounds();
+  }
+
+  /**
+   * Flags the cached (global and inverse) transform matrices of this node and its entire subtree as outdated.
+   * Offspring of a node without any valid caches don't have any valid caches either, so we can stop descending there.
+   */
+  private void markGlobalTransformDirty(){
+    if(parallelUpdateCount.get() > 0){
+      // a node in another subtree could be filling our caches; don't let it mark them valid afterwards
+      synchronized(this){
+        if(validTransformCaches == 0)
+          return;
+        validTransformCaches = 0;
+      }
+    } else {
+      if(validTransformCaches == 0)
+        return;
+      validTransformCaches = 0;
+    }
+
+    bSubtreeBoundsDirty = true;
+
+    if(spatialIndexEntry != null)
+      SpatialIndex.invalidate(this);
+
+    for(Node childNode : childNodes.toArray())
+      childNode.markGlobalTransformDirty();
   }
 
   public PVector getRotation(){
-    return this.rotation.get();
+    return new PVector(rotationX, rotationY, rotationZ);
+  }
+
+  /** Allocation-free alternative to getRotation() */
+  public PVector getRotation(PVector out){
+    out.set(rotationX, rotationY, rotationZ);
+    return out;
   }
 
+  public float getRotationX(){ return rotationX; }
+  public float getRotationY(){ return rotationY; }
+  public float getRotationZ(){ return rotationZ; }
+
   public Node setRotation(PVector newRot){
-    if(!this.rotation.equals(newRot)){
-      this.rotation = newRot.get();
-      updateLocalTransformMatrix();
-      this.rotationChangeEvent.trigger(this);
-      this.transformationEvent.trigger(this);
+    return setRotation(newRot.x, newRot.y, newRot.z);
+  }
+
+  public Node setRotation(float x, float y, float z){
+    if(rotationX != x || rotationY != y || rotationZ != z){
+      rotationX = x;
+      rotationY = y;
+      rotationZ = z;
+      onLocalTransformChange();
+      notifyChange(ROTATION_CHANGE);
     }
 
     return this;
@@ -368,25 +710,25 @@ public class Node extends TouchReceiver {
   }
 
   public Node rotateZ(float amount){
-    this.rotation.z += amount;
-    localTransformMatrix.rotateZ(amount);
+    this.rotationZ += amount;
+    onLocalTransformChange();
     return this;
   }
 
   public float getRight(){
-    return position.x + size.x;
+    return positionX + sizeX;
   }
 
   public float getRightScaled(){
-    return position.x + size.x * scale.x;
+    return positionX + sizeX * scaleX;
   }
 
   public float getBottom(){
-    return position.y + size.y;
+    return positionY + sizeY;
   }
 
   public float getBottomScaled(){
-    return position.y + size.y * scale.y;
+    return positionY + sizeY * scaleY;
   }
 
   public Node setGlobalPosition(PVector globalPos){
@@ -414,75 +756,136 @@ public class Node extends TouchReceiver {
   }
 
   public boolean isInside(PVector pos){
-    PVector localPos = toLocal(pos);
+    // localize the position (only x and y are needed)
+    PMatrix3D mat = this.getToLocalMatrix();
+    float localX = mat.m00*pos.x + mat.m01*pos.y + mat.m02*pos.z + mat.m03;
+    float localY = mat.m10*pos.x + mat.m11*pos.y + mat.m12*pos.z + mat.m13;
     // return pos.x >= position.x && pos.y >= position.y && pos.x < getRight() && pos.y < getBottom();
-    return localPos.x >= 0.0f
-      && localPos.y >= 0.0f
-      && localPos.x < size.x
-      && localPos.y < size.y;
+    return localX >= 0.0f
+      && localY >= 0.0f
+      && localX < sizeX
+      && localY < sizeY;
   }
 
-  public PMatrix3D getToLocalMatrix() {
-    // get and copy our global transformation matrix
-    PMatrix3D mat = this.getGlobalTransformMatrix().get();
+  /** @return PMatrix3D - inverse of getGlobalTransformMatrix; a cached instance which should be treated as read-only */
+  public PMatrix3D getToLocalMatrix(){
+    if(parallelUpdateCount.get() > 0){
+      synchronized(this){
+        return cachedToLocalMatrix();
+      }
+    }
 
-    // try to invert the matrix
-    if(!mat.invert()){
-      System.err.println("could not invert Model's globalTransformMatrix");
-      mat.reset();
+    return cachedToLocalMatrix();
+  }
+
+  private PMatrix3D cachedToLocalMatrix(){
+    if((validTransformCaches & TO_LOCAL_CACHE) == 0){
+      PMatrix3D globalMat = this.getGlobalTransformMatrix();
+
+      if(toLocalMatrix == null)
+        toLocalMatrix = new PMatrix3D();
+
+      invertInto(globalMat, toLocalMatrix);
+      validTransformCaches |= TO_LOCAL_CACHE;
     }
 
-    return mat;
+    return toLocalMatrix;
   }
 
-  public PMatrix3D getToLocalWithoutTranslationsMatrix() {
-    // get and copy our global transformation matrix
-    PMatrix3D mat = this.getGlobalTransformMatrixWithoutTranslations().get();
+  /** @return PMatrix3D - inverse of getGlobalTransformMatrixWithoutTranslations; a cached instance which should be treated as read-only */
+  public PMatrix3D getToLocalWithoutTranslationsMatrix(){
+    if(parallelUpdateCount.get() > 0){
+      synchronized(this){
+        return cachedToLocalWithoutTranslationsMatrix();
+      }
+    }
+
+    return cachedToLocalWithoutTranslationsMatrix();
+  }
+
+  private PMatrix3D cachedToLocalWithoutTranslationsMatrix(){
+    if((validTransformCaches & TO_LOCAL_WITHOUT_TRANSLATIONS_CACHE) == 0){
+      PMatrix3D globalMat = this.getGlobalTransformMatrixWithoutTranslations();
+
+      if(toLocalWithoutTranslationsMatrix == null)
+        toLocalWithoutTranslationsMatrix = new PMatrix3D();
+
+      invertInto(globalMat, toLocalWithoutTranslationsMatrix);
+      validTransformCaches |= TO_LOCAL_WITHOUT_TRANSLATIONS_CACHE;
+    }
+
+    return toLocalWithoutTranslationsMatrix;
+  }
+
+  private static void invertInto(PMatrix3D source, PMatrix3D target){
+    // 2D affine; only the 2x2 rotation/scale part (and the z-scale) needs inverting
+    if(isAffine2D(source)){
+      float det = source.m00 * source.m11 - source.m01 * source.m10;
+
+      if(det != 0.0f && source.m22 != 0.0f){
+        float i00 = source.m11 / det, i01 = -source.m01 / det;
+        float i10 = -source.m10 / det, i11 = source.m00 / det;
+
+        target.set(
+          i00, i01, 0.0f, -(i00 * source.m03 + i01 * source.m13),
+          i10, i11, 0.0f, -(i10 * source.m03 + i11 * source.m13),
+          0.0f, 0.0f, 1.0f / source.m22, 0.0f,
+          0.0f, 0.0f, 0.0f, 1.0f);
+        return;
+      }
+    }
+
+    target.set(source);
 
     // try to invert the matrix
-    if(!mat.invert()){
+    if(!target.invert()){
       System.err.println("could not invert Model's globalTransformMatrix");
-      mat.reset();
+      target.reset();
     }
-
-    return mat;
   }
 
   public PVector toLocal(PVector pos){
-    // get and copy our global transformation matrix
-    PMatrix3D mat = this.getToLocalMatrix();
-
-    // apply inverted matrix to given position
-    PVector localized = new PVector();
-    mat.mult(pos, localized);
+    return toLocal(pos, new PVector());
+  }
 
-    // return localised position
-    return localized;
+  /**
+   * Allocation-free alternative to toLocal(PVector)
+   * @param pos The global position to localize
+   * @param out The vector to write the result into (may be the same instance as pos)
+   * @return PVector the given out vector
+   */
+  public PVector toLocal(PVector pos, PVector out){
+    // apply our (cached) inverted global transformation matrix to the given position
+    return mult(this.getToLocalMatrix(), pos, out);
   }
 
   public PVector toLocalVelocity(PVector vel) {
-    // get and copy our global transformation matrix
-    PMatrix3D mat = this.getToLocalWithoutTranslationsMatrix();
-
-    // apply inverted matrix to given position
-    PVector localized = new PVector();
-    mat.mult(vel, localized);
+    return toLocalVelocity(vel, new PVector());
+  }
 
-    // return localised position
-    return localized;
+  /** Allocation-free alternative to toLocalVelocity(PVector); out may be the same instance as vel */
+  public PVector toLocalVelocity(PVector vel, PVector out) {
+    // apply our (cached) inverted global rotation/scale matrix to the given velocity
+    return mult(this.getToLocalWithoutTranslationsMatrix(), vel, out);
   }
 
   public PVector toGlobal(PVector pos){
-    // get and copy our global transformation matrix
-    PMatrix3D mat = this.getGlobalTransformMatrix().get();
+    return toGlobal(pos, new PVector());
+  }
 
-    // apply inverted matrix to given position
-    PVector globalized = new PVector();
-    mat.mult(pos, globalized);
-    //System.out.println("toGlobal: "+pos.toString()+" to "+globalized.toString());
+  /** Allocation-free alternative to toGlobal(PVector); out may be the same instance as pos */
+  public PVector toGlobal(PVector pos, PVector out){
+    // apply our (cached) global transformation matrix to the given position
+    return mult(this.getGlobalTransformMatrix(), pos, out);
+  }
 
-    // return localised position
-    return globalized;
+  /** Like PMatrix3D.mult(PVector, PVector), but allows source and target to be the same instance */
+  private static PVector mult(PMatrix3D mat, PVector source, PVector target){
+    float x = mat.m00*source.x + mat.m01*source.y + mat.m02*source.z + mat.m03;
+    float y = mat.m10*source.x + mat.m11*source.y + mat.m12*source.z + mat.m13;
+    float z = mat.m20*source.x + mat.m21*source.y + mat.m22*source.z + mat.m23;
+    target.set(x, y, z);
+    return target;
   }
 
   public TouchEvent toLocal(TouchEvent event){
@@ -506,7 +909,7 @@ public class Node extends TouchReceiver {
 
   public PVector parentToLocalSpace(PVector vec){
     // get and copy our global transformation matrix
-    PMatrix3D mat = this.localTransformMatrix.get();
+    PMatrix3D mat = this.getLocalTransformMatrix().get();
 
     // try to invert the matrix
     if(!mat.invert()){
@@ -540,104 +943,639 @@ public class Node extends TouchReceiver {
     if(newParent == parentNode)
       return;
 
-    parentNode = newParent;
+    linkParent(newParent);
     updateClipping();
     newParentEvent.trigger(this);
   }
 
+  /** Updates the parent reference and everything that depends on it, without any notifications */
+  private void linkParent(Node newParent){
+    parentNode = newParent;
+    onTransformChange();
+    SpatialIndex.updateMembership(this, newParent);
+    NameIndex.updateMembership(this, newParent);
+  }
+
   public void addChild(Node newChildNode){
-    childNodes.add(newChildNode);
-    newChildNode.setParent(this);
-    newChildEvent.trigger(newChildNode);
+    if(childNodes == NO_CHILDREN){
+      synchronized(this){
+        // lazy create; most nodes are leaves
+        if(childNodes == NO_CHILDREN)
+          childNodes = new ChildList();
+      }
+    }
+
+    // a node can only be the child of one node
+    Node oldParent = newChildNode.parentNode;
+    if(oldParent != null && oldParent != this && oldParent.childNodes.contains(newChildNode)){
+      // while it's still attached, so its positions in the render lists can be found
+      oldParent.removeFromRenderLists(newChildNode, true);
+
+      if(oldParent.childNodes.remove(newChildNode))
+        oldParent.invalidateSubtreeBounds();
+    }
 
-    newOffspringEvent.trigger(newChildNode);
-    for(Node n : newChildNode.getChildNodes(true /* recursive */)){
-      newOffspringEvent.trigger(n);
+    boolean bAdded = childNodes.add(newChildNode);
+    if(bAdded)
+      invalidateSubtreeBounds();
+
+    // inside bulkAttach; notifications are deferred
+    if(bulkAttachThreadCount.get() > 0){
+      BulkAttach bulk = bulkAttach.get();
+
+      if(bulk.depth > 0){
+        if(newChildNode.parentNode != this)
+          newChildNode.linkParent(this);
+        if(bAdded)
+          addToRenderLists(newChildNode, true);
+        newChildNode.bAttachPending = true;
+        bulk.parents.add(this);
+        bulk.children.add(newChildNode);
+        return;
+      }
     }
 
-    newOffspringEvent.forward(newChildNode.newOffspringEvent);
+    newChildNode.setParent(this);
+    if(bAdded)
+      addToRenderLists(newChildNode, true);
+    newChildEvent.trigger(newChildNode);
+    newChildNode.notifyNewOffspring();
   }
 
   public void removeChild(Node n){
     if(childNodes.contains(n))
-      childNodes.remove(n);
-    newOffspringEvent.stopForward(n.newOffspringEvent);
+      removeFromRenderLists(n, true);
+
+    if(childNodes.remove(n))
+      invalidateSubtreeBounds();
+
+    // detached nodes shouldn't keep (cached) transformations relative to their former parent
+    if(n.getParent() == this){
+      n.bAttachPending = false;
+      n.setParent(null);
+    }
     childRemovedEvent.trigger(n);
   }
 
-  public void removeAllChildren(){
-    while(!childNodes.isEmpty())
-    	this.removeChild(childNodes.pollFirst());
-  }
+  /** Adds all given nodes as children in a single bulkAttach call */
+  public Node addChildren(Node... newChildNodes){
+    bulkAttach(() -> {
+      for(Node n : newChildNodes)
+        addChild(n);
+    });
 
-  public void addOnTop(Node newChildNode){
-    this.addOnTop(newChildNode, 1.0f);
+    return this;
   }
 
-  public void addOnTop(Node newChildNode, float raiseWith){
-    newChildNode.riseAbove(this, raiseWith);
-    this.addChild(newChildNode);
+  /**
+   * Runs the given function with deferred attach notifications; the newParentEvent, newChildEvent and
+   * newOffspringEvent notifications (and clipping node updates) of all addChild calls made by the function
+   * (on the current thread) are sent in a single pass over the attached subtrees after the function finishes.
+   * Use this when building large scenes; attaching a subtree normally visits the entire subtree.
+   * Calls can be nested, only the outermost call sends notifications.
+   */
+  public static void bulkAttach(Runnable func){
+    BulkAttach bulk = bulkAttach.get();
+
+    if(bulk.depth++ == 0)
+      bulkAttachThreadCount.incrementAndGet();
+
+    try {
+      func.run();
+    } finally {
+      if(--bulk.depth == 0){
+        bulkAttachThreadCount.decrementAndGet();
+        commitAttachments(bulk);
+      }
+    }
   }
 
-  public void riseAbove(Node root){
-    this.riseAbove(root, 1.0f);
+  // batched changes // // // // //
+
+  /**
+   * Runs the given function as a batch; the position, size, scale and rotation change events (and
+   * transformationEvent) of all nodes changed by the function (on the current thread) are triggered
+   * after the function finishes, at most once per event per node. Calls can be nested, only the outermost
+   * call triggers the events. Matrices and bounds are only recalculated when they're requested, so
+   * multiple changes to the same node don't cause multiple recalculations either way.
+   */
+  public static void batch(Runnable func){
+    beginBatch();
+
+    try {
+      func.run();
+    } finally {
+      commitBatch();
+    }
   }
 
-  public void riseAbove(Node root, float raiseWith){
-    List<Node> list = new ArrayList<Node>();
-    root.loadSubtreeList(list, false /* not only visible */);
+  /** Allocation-free alternative to batch(Runnable); every call must be followed by a commitBatch call (use try/finally) */
+  public static void beginBatch(){
+    if(batch.get().depth++ == 0)
+      batchThreadCount.incrementAndGet();
+  }
 
-    // sort nodes by plane value
-    Collections.sort(list, topPlaneFirst);
+  /** Ends a batch started with beginBatch; the outermost call triggers all deferred change events */
+  public static void commitBatch(){
+    Batch b = batch.get();
 
-    float maxPlane = list.isEmpty() ? 0.0f : list.get(0).getPlane();
-    maxPlane += raiseWith;
+    if(b.depth == 0){
+      Logger.getLogger(Node.class.getName()).warning("commitBatch called without beginBatch");
+      return;
+    }
 
-    list.clear();
-    this.loadSubtreeList(list, false);
-    Collections.sort(list, bottomPlaneFirst);
-    float minPlane = list.isEmpty() ? 0.0f : list.get(0).getPlane();
+    if(--b.depth > 0)
+      return;
 
-    float delta = maxPlane - minPlane;
+    batchThreadCount.decrementAndGet();
 
-    for(Node n : list)
-      n.setPlane(n.getPlane() + delta);
+    try {
+      // listeners can change (other) nodes, which are notified immediately now that the batch has ended
+      for(int i=0; i<b.nodes.size(); i++){
+        Node n = b.nodes.get(i);
+        int flags = n.pendingChangeEvents;
+        n.pendingChangeEvents = 0;
+        n.triggerChangeEvents(flags);
+      }
+    } finally {
+      for(Node n : b.nodes)
+        n.pendingChangeEvents = 0;
+      b.nodes.clear();
+    }
   }
 
-  public boolean hasChild(Node child){
-    return childNodes.contains(child);
+  // deferred change events // // // // //
+
+  /**
+   * When enabled, the position, size, scale and rotation change events (and transformationEvent) of all nodes
+   * are queued instead of triggered immediately and delivered by flushChangeEvents, which updateSubtree calls
+   * after updating. Each node triggers each event at most once per flush (listeners read the latest values from
+   * the node); changes that listeners make to nodes that already triggered are delivered by the next flush,
+   * so listeners that respond to each other's changes (like Constrain) can't recurse. Disabling flushes all queued events.
+   */
+  public static void setDeferChangeEvents(boolean enable){
+    bDeferChangeEvents = enable;
+
+    if(!enable)
+      flushChangeEvents();
   }
 
-  public void updateSubtree(float dt){
-    updateSubtree(dt, false);
+  public static boolean isDeferChangeEvents(){
+    return bDeferChangeEvents;
   }
 
-  public void updateSubtree(float dt, boolean forceAll){
-    // update self
-    this._update(dt);
+  /** Triggers all change events queued in deferred mode (see setDeferChangeEvents) */
+  public static void flushChangeEvents(){
+    if(deferredChangeNodes.isEmpty())
+      return;
 
-    // loop over all of our direct children
-    for(Node node : getChildNodes()){
-      if(forceAll || node.isVisible()){
-        node.updateSubtree(dt, forceAll);
-      }
+    // take the currently queued nodes; anything queued by listeners is for the next flush
+    List<Node> nodes = new ArrayList<>();
+    for(Node n = deferredChangeNodes.poll(); n != null; n = deferredChangeNodes.poll())
+      nodes.add(n);
+
+    for(Node n : nodes){
+      int flags = n.pendingChangeEvents;
+      n.pendingChangeEvents = 0;
+      n.triggerChangeEvents(flags);
     }
   }
 
-  public void loadSubtreeList(List<Node> targetList, boolean onlyVisible){
-    if(onlyVisible && !isVisible())
+  /** Triggers the given change event (and transformationEvent), or defers them when inside a batch or in deferred mode */
+  private void notifyChange(int flag){
+    if(bDeferChangeEvents){
+      if(pendingChangeEvents == 0)
+        deferredChangeNodes.add(this);
+
+      pendingChangeEvents |= flag;
       return;
+    }
 
-    targetList.add(this);
+    if(batchThreadCount.get() > 0){
+      Batch b = batch.get();
 
-    for(Node n : childNodes){
-      n.loadSubtreeList(targetList, onlyVisible);
+      if(b.depth > 0){
+        if(pendingChangeEvents == 0)
+          b.nodes.add(this);
+
+        pendingChangeEvents |= flag;
+        return;
+      }
     }
+
+    triggerChangeEvents(flag);
   }
 
-  public List<Node> getOrderedSubtreeList(boolean onlyVisible){
-    List<Node> targetList = new ArrayList<Node>();
-    loadSubtreeList(targetList, onlyVisible);
+  private void triggerChangeEvents(int flags){
+    if(flags == 0)
+      return;
+
+    // these trigger every frame for animated nodes; skip the events nobody listens to
+    if((flags & POSITION_CHANGE) != 0 && positionChangeEvent.size() > 0)
+      positionChangeEvent.trigger(this);
+    if((flags & SIZE_CHANGE) != 0 && sizeChangeEvent.size() > 0)
+      sizeChangeEvent.trigger(this);
+    if((flags & SCALE_CHANGE) != 0 && scaleChangeEvent.size() > 0)
+      scaleChangeEvent.trigger(this);
+    if((flags & ROTATION_CHANGE) != 0 && rotationChangeEvent.size() > 0)
+      rotationChangeEvent.trigger(this);
+
+    if(transformationEvent.size() > 0)
+      transformationEvent.trigger(this);
+  }
+
+  private static void commitAttachments(BulkAttach bulk){
+    List<Node> listeners = new ArrayList<>();
+
+    for(int i=0; i<bulk.children.size(); i++){
+      Node child = bulk.children.get(i);
+
+      // already notified by an earlier subtree pass, or removed (and possibly re-attached elsewhere) since
+      if(!child.bAttachPending || child.parentNode != bulk.parents.get(i))
+        continue;
+
+      // send all notifications from the top-most pending node
+      Node top = child;
+      for(Node n = child.parentNode; n != null; n = n.parentNode){
+        if(n.bAttachPending)
+          top = n;
+      }
+
+      for(Node n = top.parentNode; n != null; n = n.parentNode){
+        if(n.newOffspringEvent.size() > 0)
+          listeners.add(0, n);
+      }
+
+      top.commitAttach(listeners, listeners.size());
+      listeners.clear();
+    }
+
+    bulk.parents.clear();
+    bulk.children.clear();
+  }
+
+  /**
+   * Sends the deferred notifications for this node and its subtree
+   * @param listeners ancestors with newOffspringEvent listeners, from the root down
+   * @param notifyCount number of listeners (from the root down) that should be notified of this node
+   */
+  private void commitAttach(List<Node> listeners, int notifyCount){
+    Node parent = parentNode;
+    setClippingNode(bClipContent ? this : parent.getClippingNode());
+
+    if(bAttachPending){
+      bAttachPending = false;
+      notifyCount = listeners.size();
+      newParentEvent.trigger(this);
+      parent.newChildEvent.trigger(this);
+    }
+
+    for(int i=notifyCount-1; i>=0; i--)
+      listeners.get(i).newOffspringEvent.trigger(this);
+
+    boolean bListening = newOffspringEvent.size() > 0;
+    if(bListening)
+      listeners.add(this);
+
+    for(Node childNode : childNodes.toArray())
+      childNode.commitAttach(listeners, notifyCount);
+
+    if(bListening)
+      listeners.remove(listeners.size()-1);
+  }
+
+  /** Triggers the newOffspringEvent of all ancestors (that have listeners) for this node and its entire subtree */
+  private void notifyNewOffspring(){
+    List<Node> listeners = null;
+
+    for(Node n = parentNode; n != null; n = n.parentNode){
+      if(n.newOffspringEvent.size() > 0){
+        if(listeners == null)
+          listeners = new ArrayList<>();
+        listeners.add(n);
+      }
+    }
+
+    // nobody to notify; don't visit the subtree
+    if(listeners != null)
+      triggerNewOffspring(listeners);
+  }
+
+  private void triggerNewOffspring(List<Node> listeners){
+    for(int i=0; i<listeners.size(); i++)
+      listeners.get(i).newOffspringEvent.trigger(this);
+
+    for(Node childNode : childNodes.toArray())
+      childNode.triggerNewOffspring(listeners);
+  }
+
+  public void removeAllChildren(){
+    for(Node childNode : childNodes.toArray())
+      this.removeChild(childNode);
+  }
+
+  public void addOnTop(Node newChildNode){
+    this.addOnTop(newChildNode, 1.0f);
+  }
+
+  public void addOnTop(Node newChildNode, float raiseWith){
+    newChildNode.riseAbove(this, raiseWith);
+    this.addChild(newChildNode);
+  }
+
+  public void riseAbove(Node root){
+    this.riseAbove(root, 1.0f);
+  }
+
+  public void riseAbove(Node root, float raiseWith){
+    List<Node> list = new ArrayList<Node>();
+    root.loadSubtreeList(list, false /* not only visible */);
+
+    // sort nodes by plane value
+    Collections.sort(list, topPlaneFirst);
+
+    float maxPlane = list.isEmpty() ? 0.0f : list.get(0).getPlane();
+    maxPlane += raiseWith;
+
+    list.clear();
+    this.loadSubtreeList(list, false);
+    Collections.sort(list, bottomPlaneFirst);
+    float minPlane = list.isEmpty() ? 0.0f : list.get(0).getPlane();
+
+    float delta = maxPlane - minPlane;
+
+    for(Node n : list)
+      n.setPlane(n.getPlane() + delta);
+  }
+
+  public boolean hasChild(Node child){
+    return childNodes.contains(child);
+  }
+
+  public void updateSubtree(float dt){
+    updateSubtree(dt, false);
+  }
+
+  /** Updates this node and its offspring (see update), after which deferred change events are triggered (see setDeferChangeEvents) */
+  public void updateSubtree(float dt, boolean forceAll){
+    updateSubtreeNodes(dt, forceAll);
+
+    if(bDeferChangeEvents)
+      flushChangeEvents();
+  }
+
+  private void updateSubtreeNodes(float dt, boolean forceAll){
+    // throttled subtrees skip frames and get the time accumulated since their previous update
+    if(updateThrottle != null){
+      dt = updateThrottle.advance(dt);
+      if(dt < 0.0f)
+        return;
+    }
+
+    // update self
+    this._update(dt);
+
+    if(bParallelUpdate){
+      updateChildrenParallel(dt, forceAll);
+      return;
+    }
+
+    // loop over all of our direct children
+    for(Node node : childNodes.toArray()){
+      if(forceAll || node.isVisible()){
+        node.updateSubtreeNodes(dt, forceAll);
+      }
+    }
+  }
+
+  // update throttling // // // // //
+
+  /** Update rate settings of this node's subtree, lazily allocated (see setUpdateFrameInterval, setUpdateRate, setUpdateFrozen) */
+  private UpdateThrottle updateThrottle = null;
+
+  private static class UpdateThrottle {
+    int frameInterval = 1;
+    float timeInterval = 0.0f;
+    boolean bFrozen = false;
+    int frameCount = 0;
+    float phase = 0.0f;
+    float accumulatedDt = 0.0f;
+
+    boolean isUsed(){
+      // pending time still needs to be passed on to the next update
+      return frameInterval > 1 || timeInterval > 0.0f || bFrozen || accumulatedDt > 0.0f;
+    }
+
+    /** @return float - the time since the previous update when an update is due this frame, otherwise a negative value */
+    float advance(float dt){
+      if(bFrozen)
+        return -1.0f;
+
+      frameCount++;
+      phase += dt;
+      accumulatedDt += dt;
+
+      if(frameCount < frameInterval || phase < timeInterval)
+        return -1.0f;
+
+      frameCount = 0;
+      // keep the remainder so the average rate matches, but don't try to catch up after long frames
+      phase = timeInterval > 0.0f ? Math.min(phase - timeInterval, timeInterval) : 0.0f;
+      dt = accumulatedDt;
+      accumulatedDt = 0.0f;
+      return dt;
+    }
+  }
+
+  private UpdateThrottle getUpdateThrottle(){
+    // lazy create; most nodes are updated every frame
+    if(updateThrottle == null)
+      updateThrottle = new UpdateThrottle();
+    return updateThrottle;
+  }
+
+  private void releaseUnusedUpdateThrottle(){
+    if(updateThrottle != null && !updateThrottle.isUsed())
+      updateThrottle = null;
+  }
+
+  /**
+   * Makes updateSubtree update this node and its offspring (and their extensions) only every Nth frame,
+   * with the time accumulated since the previous update as dt.
+   * @param frames The number of frames per update, 1 (the default) updates every frame
+   */
+  public Node setUpdateFrameInterval(int frames){
+    getUpdateThrottle().frameInterval = Math.max(1, frames);
+    releaseUnusedUpdateThrottle();
+    return this;
+  }
+
+  public int getUpdateFrameInterval(){
+    return updateThrottle == null ? 1 : updateThrottle.frameInterval;
+  }
+
+  /**
+   * Limits the updates of this node and its offspring (and their extensions) to the given rate,
+   * with the time accumulated since the previous update as dt.
+   * @param hz Maximum number of updates per second (based on the dt given to updateSubtree), zero (the default) for unlimited
+   */
+  public Node setUpdateRate(float hz){
+    getUpdateThrottle().timeInterval = hz > 0.0f ? 1.0f / hz : 0.0f;
+    releaseUnusedUpdateThrottle();
+    return this;
+  }
+
+  public float getUpdateRate(){
+    return updateThrottle == null || updateThrottle.timeInterval <= 0.0f ? 0.0f : 1.0f / updateThrottle.timeInterval;
+  }
+
+  /**
+   * When frozen, updateSubtree skips this node and its offspring (and their extensions) entirely,
+   * regardless of visibility; for static content that doesn't need updating.
+   * Time doesn't accumulate while frozen, so unfreezing doesn't cause an update with a large dt.
+   */
+  public Node setUpdateFrozen(boolean frozen){
+    UpdateThrottle throttle = getUpdateThrottle();
+
+    if(throttle.bFrozen && !frozen){
+      throttle.frameCount = 0;
+      throttle.phase = 0.0f;
+      throttle.accumulatedDt = 0.0f;
+    }
+
+    throttle.bFrozen = frozen;
+    releaseUnusedUpdateThrottle();
+    return this;
+  }
+
+  public boolean isUpdateFrozen(){
+    return updateThrottle != null && updateThrottle.bFrozen;
+  }
+
+  // parallel update // // // // //
+
+  /** When enabled, updateSubtree updates the subtrees of this node's children in parallel (see setParallelUpdate) */
+  private boolean bParallelUpdate = false;
+  /** Minimum number of nodes a child's subtree needs to have to be updated in a separate task */
+  private static int parallelUpdateThreshold = 64;
+  /** Number of parallel updates in progress (see updateChildrenParallel) */
+  private static final AtomicInteger parallelUpdateCount = new AtomicInteger(0);
+  private static ForkJoinPool parallelUpdatePool = null;
+
+  /**
+   * When enabled, updateSubtree treats the subtrees of this node's children as independent units of work
+   * and updates them in parallel using a ForkJoinPool (see setParallelUpdatePool); children with subtrees
+   * smaller than the threshold (see setParallelUpdateThreshold) are updated sequentially by the calling task.
+   * This node itself is still updated first and updateSubtree only returns when all offspring are updated.
+   *
+   * Contract for the update methods of the offspring (and their extensions) of a parallel-update node,
+   * which no longer run on the animation thread, nor in a defined order relative to their "cousins":
+   * - only modify the node itself, its own offspring and its own extensions;
+   *   this includes adding/removing nodes, which is only allowed within the node's own subtree
+   * - only read (never modify) other nodes; transformations (toLocal/toGlobal, getGlobalTransformMatrix, etc.)
+   *   can be read from any node: their caches are filled under the node's monitor during parallel updates,
+   *   but when another subtree is moving the node at the same time, the result can be from before or after that change
+   *   (the transformations of this node and its ancestors are prepared beforehand, so they're stable and uncontended)
+   * - don't draw and don't access the (shared) PGraphics
+   * - listeners of events triggered during the update run on the updating thread, so they're bound by the same rules
+   */
+  public Node setParallelUpdate(boolean enable){
+    bParallelUpdate = enable;
+    return this;
+  }
+
+  public boolean isParallelUpdate(){
+    return bParallelUpdate;
+  }
+
+  /** Sets the minimum (subtree) node count for a child of a parallel-update node to get its own task (default 64) */
+  public static void setParallelUpdateThreshold(int nodeCount){
+    parallelUpdateThreshold = nodeCount;
+  }
+
+  public static int getParallelUpdateThreshold(){
+    return parallelUpdateThreshold;
+  }
+
+  /** Sets the pool used for parallel updates; null (the default) uses the common ForkJoinPool */
+  public static void setParallelUpdatePool(ForkJoinPool pool){
+    parallelUpdatePool = pool;
+  }
+
+  private void updateChildrenParallel(float dt, boolean forceAll){
+    // transformation caches are calculated lazily, prepare the ones that all offspring could read so they don't contend for them
+    for(Node n = this; n != null; n = n.parentNode){
+      n.getToLocalMatrix();
+      n.getToLocalWithoutTranslationsMatrix();
+    }
+
+    parallelUpdateCount.incrementAndGet();
+
+    try {
+      if(!ForkJoinTask.inForkJoinPool()){
+        ForkJoinPool pool = parallelUpdatePool == null ? ForkJoinPool.commonPool() : parallelUpdatePool;
+        pool.invoke(ForkJoinTask.adapt(() -> forkChildUpdates(dt, forceAll)));
+        return;
+      }
+
+      forkChildUpdates(dt, forceAll);
+    } finally {
+      parallelUpdateCount.decrementAndGet();
+    }
+  }
+
+  private void forkChildUpdates(float dt, boolean forceAll){
+    List<ForkJoinTask<?>> tasks = null;
+
+    for(Node node : childNodes.toArray()){
+      if(!forceAll && !node.isVisible())
+        continue;
+
+      // not worth a task of its own
+      if(node.countSubtreeNodes(parallelUpdateThreshold) < parallelUpdateThreshold){
+        node.updateSubtreeNodes(dt, forceAll);
+        continue;
+      }
+
+      if(tasks == null)
+        tasks = new ArrayList<>();
+
+      tasks.add(ForkJoinTask.adapt(() -> node.updateSubtreeNodes(dt, forceAll)).fork());
+    }
+
+    if(tasks != null){
+      for(ForkJoinTask<?> task : tasks)
+        task.join();
+    }
+  }
+
+  /** @return int - the number of nodes in this node's subtree, counting stops when the given limit is reached */
+  private int countSubtreeNodes(int limit){
+    int count = 1;
+
+    for(Node node : childNodes.toArray()){
+      if(count >= limit)
+        break;
+      count += node.countSubtreeNodes(limit - count);
+    }
+
+    return count;
+  }
+
+  public void loadSubtreeList(List<Node> targetList, boolean onlyVisible){
+    if(onlyVisible && !isVisible())
+      return;
+
+    targetList.add(this);
+
+    for(Node n : childNodes.toArray()){
+      n.loadSubtreeList(targetList, onlyVisible);
+    }
+  }
+
+  public List<Node> getOrderedSubtreeList(boolean onlyVisible){
+    List<Node> targetList = new ArrayList<Node>();
+    loadSubtreeList(targetList, onlyVisible);
 
     // sort nodes by plane value
     Collections.sort(targetList, bottomPlaneFirst);
@@ -646,14 +1584,16 @@ public class Node extends TouchReceiver {
   }
 
   public int indexOf(Node n){
-    int idx=0;
-    for(Node childNode : getChildNodes()){
-      if(childNode == n)
-        return idx;
-      idx++;
-    }
+    return childNodes.indexOf(n);
+  }
 
-    return -1;
+  /** @return Node - the child at the given position (see indexOf), null when out of range */
+  public Node getChild(int index){
+    return childNodes.get(index);
+  }
+
+  public int getChildCount(){
+    return childNodes.size();
   }
 
   /**
@@ -665,6 +1605,9 @@ public class Node extends TouchReceiver {
    * 1. get list of subtree nodes (only visible ones by default)
    * 2. sort by plane value
    * 3. call draw from back to front
+   *
+   * The plane-ordered list of visible nodes is kept by this (render root) node; visibility, plane and
+   * hierarchy changes in its subtree insert or remove the affected nodes at their position in the list.
    */
   public void render(){ render(false /* forceAll */); }
 
@@ -674,21 +1617,63 @@ public class Node extends TouchReceiver {
    */
   public void render(boolean forceAll){
     // Get order list of subtree nodes
-    List<Node> nodes = getOrderedSubtreeList(!forceAll);
+    List<Node> nodes = forceAll ? getOrderedSubtreeList(false) : getRenderList();
+
+    // flag all nodes that are (partially) inside the viewport
+    int stamp = 0;
+    renderCulledCount = 0;
+
+    if(bRenderCulling && !forceAll){
+      float[] rects = getRenderCullingRects();
+
+      if(!bRenderViewport){
+        rects[4] = 0.0f;
+        rects[5] = 0.0f;
+        rects[6] = pg.width;
+        rects[7] = pg.height;
+      }
+
+      stamp = ++renderStampCounter;
+      stampRenderableNodes(stamp, rects, rects[4], rects[5], rects[6], rects[7]);
+    }
 
     // call draw on each node
-    for(Node node : nodes){
+    for(int i=0; i<nodes.size(); i++){
+      Node node = nodes.get(i);
+
+      // culled?
+      if(stamp != 0 && node.renderStamp != stamp){
+        renderCulledCount++;
+        continue;
+      }
 
       Node clipNode = node.getClippingNode();
 
       // enable clipping if necessary
       if(clipNode != null){
-        PVector scrPos = clipNode.getGlobalPosition();
-        // TODO this size conversion from local to global space, only really works
-        // if the node is rotated to multiples of 90 degrees (or not rotated at all of course).
-        PVector bottomRight = clipNode.getGlobalBottomRight();
+        // intersection of the areas of all nested clipping nodes
+        float minX = Float.NEGATIVE_INFINITY, minY = Float.NEGATIVE_INFINITY;
+        float maxX = Float.POSITIVE_INFINITY, maxY = Float.POSITIVE_INFINITY;
+
+        for(Node n = clipNode; n != null; n = getOuterClippingNode(n)){
+          // TODO this size conversion from local to global space, only really works
+          // if the node is rotated to multiples of 90 degrees (or not rotated at all of course).
+          PMatrix3D mat = n.getGlobalTransformMatrix();
+          float w = n.sizeX, h = n.sizeY;
+          float x1 = mat.m03, y1 = mat.m13;
+          float x2 = mat.m00*w + mat.m01*h + mat.m03, y2 = mat.m10*w + mat.m11*h + mat.m13;
+          minX = Math.max(minX, Math.min(x1, x2));
+          minY = Math.max(minY, Math.min(y1, y2));
+          maxX = Math.min(maxX, Math.max(x1, x2));
+          maxY = Math.min(maxY, Math.max(y1, y2));
+        }
+
+        // nothing of this node would be visible
+        if(maxX <= minX || maxY <= minY)
+          continue;
+
         pg.imageMode(PGraphics.CORNERS);
-        pg.clip(scrPos.x, scrPos.y, bottomRight.x, bottomRight.y);
+        pg.clip(minX, minY, maxX, maxY);
       }
 
       pg.pushMatrix();
@@ -711,10 +1696,11 @@ public class Node extends TouchReceiver {
   public void renderDebug(){ renderDebug(false); }
   void renderDebug(boolean forceAll){
     // Get order list of subtree nodes
-    List<Node> nodes = getOrderedSubtreeList(!forceAll);
+    List<Node> nodes = forceAll ? getOrderedSubtreeList(false) : getRenderList();
 
     // call draw on each node
-    for(Node node : nodes){
+    for(int i=0; i<nodes.size(); i++){
+      Node node = nodes.get(i);
       pg.pushMatrix();
       {
         pg.applyMatrix(node.getGlobalTransformMatrix());
@@ -724,48 +1710,418 @@ public class Node extends TouchReceiver {
     }
   }
 
+  /**
+   * Flags all nodes in this subtree whose bounds overlap with the given rectangle
+   * (the viewport, limited to the rectangle of the current clipping node)
+   */
+  private void stampRenderableNodes(int stamp, float[] rects, float minX, float minY, float maxX, float maxY){
+    if(!isVisible() || !subtreeBoundsOverlap(minX, minY, maxX, maxY))
+      return;
+
+    loadGlobalBounds(rects);
+    if(rects[0] <= maxX && rects[2] >= minX && rects[1] <= maxY && rects[3] >= minY)
+      renderStamp = stamp;
+
+    // offspring is clipped by this node; intersect its bounds with the current (viewport and clipping) area
+    if(bClipContent){
+      minX = Math.max(minX, rects[0]);
+      minY = Math.max(minY, rects[1]);
+      maxX = Math.min(maxX, rects[2]);
+      maxY = Math.min(maxY, rects[3]);
+    }
+
+    for(Node childNode : childNodes.toArray())
+      childNode.stampRenderableNodes(stamp, rects, minX, minY, maxX, maxY);
+  }
+
+  private float[] getRenderCullingRects(){
+    // lazy create; only needed by render roots with culling enabled
+    if(renderCullingRects == null)
+      renderCullingRects = new float[8];
+    return renderCullingRects;
+  }
+
+  /**
+   * When enabled, render() skips (without calling draw) all nodes whose screen-space bounds
+   * fall completely outside the viewport (see setRenderViewport), or outside the bounds of the nodes
+   * that clip them (see setClipContent). Entire off-screen subtrees are skipped without being visited.
+   * Only use this for scenes where nodes don't draw outside of their own size.
+   */
+  public Node setRenderCulling(boolean enable){
+    bRenderCulling = enable;
+    return this;
+  }
+
+  public boolean isRenderCulling(){
+    return bRenderCulling;
+  }
+
+  /** Sets the (screen-space) viewport rectangle used for render culling, by default the PGraphics bounds are used */
+  public Node setRenderViewport(float x, float y, float width, float height){
+    float[] rects = getRenderCullingRects();
+    rects[4] = x;
+    rects[5] = y;
+    rects[6] = x + width;
+    rects[7] = y + height;
+    bRenderViewport = true;
+    return this;
+  }
+
+  /** Makes render culling use the PGraphics bounds as viewport again */
+  public Node resetRenderViewport(){
+    bRenderViewport = false;
+    return this;
+  }
+
+  /** @return int - the number of nodes that were skipped by render culling during the last render() call */
+  public int getRenderCulledCount(){
+    return renderCulledCount;
+  }
+
+  /**
+   * @return List - the plane-ordered list of visible subtree nodes used by render and renderDebug.
+   * It is cached by this node and only reloaded when flagged dirty, so it should be treated as read-only.
+   */
+  List<Node> getRenderList(){
+    if(renderList == null){
+      // lazy create, only render roots maintain a render list
+      renderList = new ArrayList<>();
+      bRenderListDirty = true;
+    }
+
+    if(bRenderListDirty){
+      // clear the flag first, so changes made while reloading flag it again
+      bRenderListDirty = false;
+      renderList.clear();
+      loadSubtreeList(renderList, true /* only visible */);
+
+      // a stable sort, so nodes with the same plane value keep their hierarchical order;
+      // most changes don't affect plane values, so skip sorting if we're still in order
+      if(!isOrdered(renderList))
+        renderList.sort(bottomPlaneFirst);
+    }
+
+    return renderList;
+  }
+
+  private static boolean isOrdered(List<Node> list){
+    for(int i=1; i<list.size(); i++)
+      if(list.get(i-1).getPlane() > list.get(i).getPlane())
+        return false;
+
+    return true;
+  }
+
+  /** Orders nodes like the render lists; by plane, and by (pre-order) position in the tree within the same plane */
+  private static final Comparator<Node> renderOrder = (a,b) -> {
+    int result = Float.compare(a.plane, b.plane);
+    return result != 0 ? result : compareTreeOrder(a, b);
+  };
+
+  /** Compares the pre-order position of two nodes in the same tree; ancestors come before their offspring */
+  private static int compareTreeOrder(Node a, Node b){
+    int depthA = 0, depthB = 0;
+    for(Node n = a.parentNode; n != null; n = n.parentNode) depthA++;
+    for(Node n = b.parentNode; n != null; n = n.parentNode) depthB++;
+
+    Node ancestorA = a, ancestorB = b;
+    while(depthA > depthB){ ancestorA = ancestorA.parentNode; depthA--; }
+    while(depthB > depthA){ ancestorB = ancestorB.parentNode; depthB--; }
+
+    // one is an ancestor of the other
+    if(ancestorA == ancestorB)
+      return a == b ? 0 : (ancestorA == a ? -1 : 1);
+
+    while(ancestorA.parentNode != ancestorB.parentNode){
+      ancestorA = ancestorA.parentNode;
+      ancestorB = ancestorB.parentNode;
+    }
+
+    // child slots keep the order of the children (see ChildList)
+    return Integer.compare(ancestorA.childSlot, ancestorB.childSlot);
+  }
+
+  /**
+   * Inserts the given node (this node or one of its children) into the render lists of this node and the ancestors
+   * that are render roots, at the position matching its plane; including its visible offspring when subtree is true.
+   */
+  private void addToRenderLists(Node node, boolean subtree){
+    updateRenderLists(node, subtree, true);
+  }
+
+  /** Counterpart of addToRenderLists; has to be called while the node is still attached and unchanged */
+  private void removeFromRenderLists(Node node, boolean subtree){
+    updateRenderLists(node, subtree, false);
+  }
+
+  private void updateRenderLists(Node node, boolean subtree, boolean add){
+    if(!node.bVisible)
+      return;
+
+    // inside bulkAttach, or during a parallel update (where other threads change their subtrees);
+    // flag the render lists instead, they're reloaded once when needed
+    boolean bReload = (bulkAttachThreadCount.get() > 0 && bulkAttach.get().depth > 0) || parallelUpdateCount.get() > 0;
+
+    for(Node root = this; root != null; root = root.parentNode){
+      // invisible nodes hide their offspring; node isn't in the render lists of this root and beyond
+      if(!root.bVisible)
+        return;
+
+      if(root.renderList == null || root.bRenderListDirty)
+        continue;
+
+      if(bReload)
+        root.bRenderListDirty = true;
+      else if(add)
+        root.insertIntoRenderList(node, subtree);
+      else
+        root.removeFromRenderList(node, subtree);
+    }
+  }
+
+  private void insertIntoRenderList(Node node, boolean subtree){
+    if(!node.bVisible || bRenderListDirty)
+      return;
+
+    int idx = Collections.binarySearch(renderList, node, renderOrder);
+    // already added (by a listener triggered while attaching)
+    if(idx < 0)
+      renderList.add(-idx - 1, node);
+
+    if(subtree){
+      for(Node childNode : node.childNodes.toArray())
+        insertIntoRenderList(childNode, true);
+    }
+  }
+
+  private void removeFromRenderList(Node node, boolean subtree){
+    if(!node.bVisible || bRenderListDirty)
+      return;
+
+    int idx = Collections.binarySearch(renderList, node, renderOrder);
+
+    if(idx < 0){
+      // not where it should be (changed while it wasn't attached to this root?); reload the list instead
+      bRenderListDirty = true;
+      return;
+    }
+
+    renderList.remove(idx);
+
+    if(subtree){
+      for(Node childNode : node.childNodes.toArray())
+        removeFromRenderList(childNode, true);
+    }
+  }
+
+  /** @return PMatrix3D - the matrix matching this node's position, rotation and scale; a cached instance which should be treated as read-only */
   public PMatrix3D getLocalTransformMatrix(){
+    if(parallelUpdateCount.get() > 0){
+      synchronized(this){
+        return cachedLocalTransformMatrix();
+      }
+    }
+
+    return cachedLocalTransformMatrix();
+  }
+
+  private PMatrix3D cachedLocalTransformMatrix(){
+    // lazy create; only needed for root nodes, global matrices of other nodes are calculated from the attributes directly
+    if(localTransformMatrix == null){
+      localTransformMatrix = new PMatrix3D();
+      bLocalTransformDirty = true;
+    }
+
+    if(bLocalTransformDirty){
+      bLocalTransformDirty = false;
+
+      if(isLocalTransform2D()){
+        applyLocalTransform2D(null, localTransformMatrix, true);
+      } else {
+        localTransformMatrix.reset();
+        applyLocalTransform(localTransformMatrix);
+      }
+    }
+
     return localTransformMatrix;
   }
 
   public PMatrix3D getLocalTransformMatrixWithoutTranslations(){
     PMatrix3D mat = new PMatrix3D();
-    //mat.translate(position.x, position.y, position.z);
-    mat.rotateX(rotation.x);
-    mat.rotateY(rotation.y);
-    mat.rotateZ(rotation.z);
-    mat.scale(scale.x, scale.y, scale.z);
+    loadLocalTransformMatrixWithoutTranslations(mat);
     return mat;
   }
 
+  private void loadLocalTransformMatrixWithoutTranslations(PMatrix3D mat){
+    if(isLocalTransform2D()){
+      applyLocalTransform2D(null, mat, false);
+      return;
+    }
+
+    mat.reset();
+    applyLocalTransformWithoutTranslations(mat);
+  }
+
+  /**
+   * @return PMatrix3D - transformation from this node's local space into screen-space.
+   * The returned instance is cached by the node (and only recalculated after transformation changes
+   * to the node or any of its ancestors), so it should be treated as read-only.
+   */
   public PMatrix3D getGlobalTransformMatrix(){
+    if(parallelUpdateCount.get() > 0){
+      synchronized(this){
+        return cachedGlobalTransformMatrix();
+      }
+    }
+
+    return cachedGlobalTransformMatrix();
+  }
+
+  private PMatrix3D cachedGlobalTransformMatrix(){
     Node parent = getParent();
 
     // no parent? Then our localTransformMatrix IS our globalTransformMatrix
-    if(parent == null)
+    if(parent == null){
+      validTransformCaches |= GLOBAL_CACHE;
       return getLocalTransformMatrix();
+    }
 
-    // create copy of our local transform matrix so we don't modify the original
-    PMatrix3D localMat = getLocalTransformMatrix().get();
-    // get our parent's global transform matrix and use it to transform our local matrix
-    localMat.preApply(parent.getGlobalTransformMatrix());
-    // return our globalized matrix
-    return localMat;
+    if((validTransformCaches & GLOBAL_CACHE) == 0){
+      // lazy create; root nodes never need a matrix of their own
+      if(globalTransformMatrix == null)
+        globalTransformMatrix = new PMatrix3D();
+
+      // our parent's global transform matrix, applied to our local matrix
+      PMatrix3D parentMat = parent.getGlobalTransformMatrix();
+
+      if(isLocalTransform2D() && isAffine2D(parentMat)){
+        applyLocalTransform2D(parentMat, globalTransformMatrix, true);
+      } else {
+        globalTransformMatrix.set(parentMat);
+        applyLocalTransform(globalTransformMatrix);
+      }
+
+      validTransformCaches |= GLOBAL_CACHE;
+    }
+
+    return globalTransformMatrix;
   }
 
+  /** @return PMatrix3D - like getGlobalTransformMatrix, but without any translations; a cached instance which should be treated as read-only */
   public PMatrix3D getGlobalTransformMatrixWithoutTranslations(){
+    if(parallelUpdateCount.get() > 0){
+      synchronized(this){
+        return cachedGlobalTransformMatrixWithoutTranslations();
+      }
+    }
+
+    return cachedGlobalTransformMatrixWithoutTranslations();
+  }
+
+  private PMatrix3D cachedGlobalTransformMatrixWithoutTranslations(){
+    if((validTransformCaches & GLOBAL_WITHOUT_TRANSLATIONS_CACHE) != 0)
+      return globalTransformMatrixWithoutTranslations;
+
+    if(globalTransformMatrixWithoutTranslations == null)
+      globalTransformMatrixWithoutTranslations = new PMatrix3D();
+
     Node parent = getParent();
 
-    // no parent? Then our localTransformMatrix IS our globalTransformMatrix
-    if(parent == null)
-      return getLocalTransformMatrixWithoutTranslations();
+    // no parent? Then our local matrix IS our global matrix
+    if(parent == null){
+      loadLocalTransformMatrixWithoutTranslations(globalTransformMatrixWithoutTranslations);
+    } else {
+      // our parent's global matrix, applied to our local matrix
+      PMatrix3D parentMat = parent.getGlobalTransformMatrixWithoutTranslations();
+
+      if(isLocalTransform2D() && isAffine2D(parentMat)){
+        applyLocalTransform2D(parentMat, globalTransformMatrixWithoutTranslations, false);
+      } else {
+        globalTransformMatrixWithoutTranslations.set(parentMat);
+        applyLocalTransformWithoutTranslations(globalTransformMatrixWithoutTranslations);
+      }
+    }
+
+    validTransformCaches |= GLOBAL_WITHOUT_TRANSLATIONS_CACHE;
+    return globalTransformMatrixWithoutTranslations;
+  }
+
+  // bounds // // // // //
+
+  /**
+   * Loads the screen-space bounding box of this node and all of its offspring (only x and y attributes).
+   * The bounds are cached and only recalculated after transformation, size or hierarchy changes.
+   * Nodes with 3D rotations or z-translations aren't considered to be bounded at all.
+   */
+  public void getSubtreeBounds(PVector outMin, PVector outMax){
+    float[] bounds = getSubtreeBoundsCache();
+    outMin.set(bounds[0], bounds[1], 0.0f);
+    outMax.set(bounds[2], bounds[3], 0.0f);
+  }
+
+  /** @return boolean - false if neither this node nor any of its offspring can contain the given (global) position */
+  public boolean subtreeBoundsContain(PVector pos){
+    float[] bounds = getSubtreeBoundsCache();
+    return pos.x >= bounds[0] && pos.y >= bounds[1] && pos.x <= bounds[2] && pos.y <= bounds[3];
+  }
+
+  /** @return boolean - false if the bounds of this node's subtree don't overlap with the given (global) rectangle */
+  public boolean subtreeBoundsOverlap(float minX, float minY, float maxX, float maxY){
+    float[] bounds = getSubtreeBoundsCache();
+    return bounds[0] <= maxX && bounds[2] >= minX && bounds[1] <= maxY && bounds[3] >= minY;
+  }
+
+  private float[] getSubtreeBoundsCache(){
+    if(subtreeBounds == null){
+      // lazy create; only nodes that are culled or hit-tested need bounds
+      subtreeBounds = new float[4];
+      bSubtreeBoundsDirty = true;
+    }
+
+    if(bSubtreeBoundsDirty){
+      bSubtreeBoundsDirty = false;
+      float[] bounds = subtreeBounds;
+      loadGlobalBounds(bounds);
+
+      for(Node childNode : childNodes.toArray()){
+        float[] childBounds = childNode.getSubtreeBoundsCache();
+        bounds[0] = Math.min(bounds[0], childBounds[0]);
+        bounds[1] = Math.min(bounds[1], childBounds[1]);
+        bounds[2] = Math.max(bounds[2], childBounds[2]);
+        bounds[3] = Math.max(bounds[3], childBounds[3]);
+      }
+    }
+
+    return subtreeBounds;
+  }
+
+  /** Flags the cached bounds of this node and its ancestors as outdated */
+  private void invalidateSubtreeBounds(){
+    for(Node n = this; n != null && !n.bSubtreeBoundsDirty; n = n.parentNode)
+      n.bSubtreeBoundsDirty = true;
+  }
+
+  /**
+   * Loads the screen-space bounding box (minX, minY, maxX, maxY) of only this node into the given array
+   * @return boolean - false if this node has a 3D transformation, in which case the bounds are infinite
+   */
+  boolean loadGlobalBounds(float[] out){
+    PMatrix3D mat = getGlobalTransformMatrix();
+
+    // only for 2D transformations the screen-space bounding box is known
+    if(!isAffine2D(mat)){
+      out[0] = out[1] = Float.NEGATIVE_INFINITY;
+      out[2] = out[3] = Float.POSITIVE_INFINITY;
+      return false;
+    }
 
-    // create copy of our local transform matrix so we don't modify the original
-    PMatrix3D localMat = getLocalTransformMatrixWithoutTranslations().get();
-    // get our parent's global transform matrix and use it to transform our local matrix
-    localMat.preApply(parent.getGlobalTransformMatrixWithoutTranslations());
-    // return our globalized matrix
-    return localMat;
+    float xw = mat.m00 * sizeX, xh = mat.m01 * sizeY;
+    float yw = mat.m10 * sizeX, yh = mat.m11 * sizeY;
+    out[0] = mat.m03 + Math.min(0.0f, xw) + Math.min(0.0f, xh);
+    out[1] = mat.m13 + Math.min(0.0f, yw) + Math.min(0.0f, yh);
+    out[2] = mat.m03 + Math.max(0.0f, xw) + Math.max(0.0f, xh);
+    out[3] = mat.m13 + Math.max(0.0f, yw) + Math.max(0.0f, yh);
+    return true;
   }
 
   public Node enable(boolean _enable){
@@ -815,12 +2171,39 @@ public class Node extends TouchReceiver {
     return null;
   }
 
-  private void updateClipping(){
-    this.setClippingNode(this.findClippingNode());
+  /** @return Node - the clipping node of the given node's clipping node, so the next (outer) clipping region */
+  private static Node getOuterClippingNode(Node clipNode){
+    Node parent = clipNode.parentNode;
+    return parent == null ? null : parent.clippingNode;
+  }
 
-    for(Node n : getChildNodes(true /* recursive */)){
-      n.setClippingNode(n.findClippingNode());
+  /**
+   * @return boolean - false if the given (global) position is outside of the clipping region of this node;
+   * the intersection of the areas of its clipping node and all of their clipping ancestors
+   */
+  public boolean isInsideClipping(PVector pos){
+    for(Node n = clippingNode; n != null; n = getOuterClippingNode(n)){
+      if(!n.isInside(pos))
+        return false;
     }
+
+    return true;
+  }
+
+  private void updateClipping(){
+    propagateClippingNode(parentNode == null ? null : parentNode.clippingNode);
+  }
+
+  /** Updates the clipping node top-down, skipping branches whose clipping node doesn't change */
+  private void propagateClippingNode(Node inheritedClippingNode){
+    Node newClippingNode = bClipContent ? this : inheritedClippingNode;
+    if(newClippingNode == clippingNode)
+      return;
+
+    setClippingNode(newClippingNode);
+
+    for(Node childNode : childNodes.toArray())
+      childNode.propagateClippingNode(newClippingNode);
   }
 
   // EXTENSIONS // // // // //
@@ -835,18 +2218,62 @@ public class Node extends TouchReceiver {
   public void addExtension(ExtensionBase ext){
     // lazy create so extensions attribute doesn't use any memory
     // unless this Node actually gets extensions
-    if(extensions == null)
+    if(extensions == null){
       extensions = new ConcurrentLinkedDeque<>();
+      awakeExtensions = new ConcurrentLinkedDeque<>();
+    }
 
     extensions.add(ext);
+    ext.setHostNode(this);
+    wakeExtension(ext);
   }
 
   public void stopUsing(ExtensionBase ext){
     if(this.extensions == null)
       return;
 
-    if(this.extensions.remove(ext))
+    if(this.extensions.remove(ext)){
+      ConcurrentLinkedDeque<ExtensionBase> awake = awakeExtensions;
+      if(awake != null){
+        synchronized(awake){
+          awake.remove(ext);
+        }
+      }
+
+      if(ext.getHostNode() == this)
+        ext.setHostNode(null);
+
       ext.disable();
+    }
+  }
+
+  /** Resumes calling update on the given extension of this node every frame; called by ExtensionBase.wake */
+  public void wakeExtension(ExtensionBase ext){
+    ConcurrentLinkedDeque<ExtensionBase> all = extensions, awake = awakeExtensions;
+    if(all == null || awake == null)
+      return;
+
+    synchronized(awake){
+      if(!awake.contains(ext) && all.contains(ext))
+        awake.add(ext);
+    }
+  }
+
+  public boolean isExtensionAwake(ExtensionBase ext){
+    ConcurrentLinkedDeque<ExtensionBase> awake = awakeExtensions;
+    return awake != null && awake.contains(ext);
+  }
+
+  private void sleepExtension(ExtensionBase ext){
+    ConcurrentLinkedDeque<ExtensionBase> awake = awakeExtensions;
+    if(awake == null)
+      return;
+
+    // (re-)check while locked, so a concurrent wake can't get lost
+    synchronized(awake){
+      if(!ext.isEnabled() || ext.canSleep())
+        awake.remove(ext);
+    }
   }
 
   public ExtensionBase[] getExtensions(){
@@ -872,56 +2299,49 @@ public class Node extends TouchReceiver {
 	  return getChildWithName(name, -1);
   }
 
+  /**
+   * Finds an offspring node by name, using the (lazily created) name index of the scene.
+   * Direct children are preferred over deeper offspring.
+   * @param maxDepth Number of levels below the direct children to search, negative for unlimited
+   */
   public Node getChildWithName(String name, int maxDepth){
-    for(Node childNode : childNodes){
-      if(childNode.getName().equals(name))
-        return childNode;
-    }
-
-    if(maxDepth == 0)
-     return null;
-
-    for(Node childNode : childNodes){
-      Node result;
-      result = childNode.getChildWithName(name, maxDepth-1);
-      if(result != null)
-        return result;
-    }
-
-    return null;
+    return NameIndex.getFor(this).findFirst(this, name, maxDepth);
   }
 
   public List<Node> getChildrenWithName(String name){
 	  return getChildrenWithName(name, -1);
   }
 
+  /**
+   * @param maxDepth Number of levels below the direct children to search, negative for unlimited
+   * @return List - all offspring nodes with the given name, in (pre-order) tree order
+   */
   public List<Node> getChildrenWithName(String name, int maxDepth){
     List<Node> result = new ArrayList<>();
-
-    for(Node childNode : childNodes){
-      if(childNode.getName().equals(name))
-        result.add(childNode);
-
-      if(maxDepth != 0)
-        result.addAll(childNode.getChildrenWithName(name, maxDepth-1));
-    }
-
+    NameIndex.getFor(this).loadAll(result, this, name, maxDepth);
     return result;
   }
 
+  /** @return List - a (modifiable) copy of the list of child nodes; see getChildNodesSnapshot for iterating without allocations */
   public List<Node> getChildNodes(){
     return getChildNodes(false);
   }
 
+  /** @return Node[] - snapshot of the child nodes in order; a cached instance (until the next change) which should be treated as read-only */
+  public Node[] getChildNodesSnapshot(){
+    return childNodes.toArray();
+  }
+
   public List<Node> getChildNodes(boolean recursive){
-    List<Node> result = new ArrayList<>();
+    Node[] children = childNodes.toArray();
+    List<Node> result = new ArrayList<>(children.length);
 
     if(!recursive){
-      result.addAll(childNodes);
+      Collections.addAll(result, children);
       return result;
     }
 
-    for(Node n : childNodes){
+    for(Node n : children){
       result.add(n);
       result.addAll(n.getChildNodes(true));
     }
@@ -933,7 +2353,7 @@ public class Node extends TouchReceiver {
   public void forAllChildren(Consumer<Node> func){
     newChildEvent.addListener(func);
 
-    for(Node n : childNodes){
+    for(Node n : childNodes.toArray()){
       func.accept(n);
     }
   }
@@ -982,7 +2402,7 @@ public class Node extends TouchReceiver {
       logger.warning("active layouting in Node not yet implemented");
     }
 
-    subject.setX(this.position.x - subject.getSizeScaled().x - spacing);
+    subject.setX(this.positionX - subject.getSizeScaled().x - spacing);
     return this;
   }
 
@@ -1005,7 +2425,7 @@ public class Node extends TouchReceiver {
       logger.warning("active layouting in Node not yet implemented");
     }
 
-    subject.setY(this.position.y - subject.getSizeScaled().y - spacing);
+    subject.setY(this.positionY - subject.getSizeScaled().y - spacing);
     return this;
   }
 
@@ -0,0 +1,180 @@
+package com.fuse.ui;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Keeps released nodes for reuse, so screens that frequently create and discard nodes (like list items
+ * or gallery images) don't allocate new nodes (and their events) every time.
+ *
+ * Released nodes are recycled (see Node.recycle), which resets them to the state of a newly constructed node;
+ * use setReleaseHook and setAcquireHook for any additional cleanup and preparation.
+ * Releasing is safe while touch events still reference the node; those stop being delivered to it.
+ */
+public class NodePool<T extends Node> {
+
+  private Logger logger;
+  private Supplier<T> factory;
+  private ArrayDeque<T> idleNodes = new ArrayDeque<>();
+  private int maxIdleCount = Integer.MAX_VALUE;
+  private Consumer<T> acquireHook = null, releaseHook = null;
+  // metrics
+  private int createdCount = 0, inUseCount = 0, reusedCount = 0, discardedCount = 0;
+
+  /** @param factory Creates new nodes when no released nodes are available */
+  public NodePool(Supplier<T> factory){
+    logger = Logger.getLogger(NodePool.class.getName());
+    this.factory = factory;
+  }
+
+  /** @return T - a released node or, if there's none, a newly created node */
+  public T acquire(){
+    T node;
+
+    synchronized(this){
+      node = idleNodes.poll();
+
+      if(node == null){
+        createdCount++;
+      } else {
+        node.idlePool = null;
+        reusedCount++;
+      }
+
+      inUseCount++;
+    }
+
+    if(node == null)
+      node = factory.get();
+
+    if(acquireHook != null)
+      acquireHook.accept(node);
+
+    return node;
+  }
+
+  /**
+   * Recycles the given node and keeps it for reuse; destroys it instead when the pool
+   * already has the maximum number of idle nodes (see setMaxIdleCount).
+   * The node shouldn't be used by the caller anymore after releasing it.
+   * @return boolean - false if the node was already released
+   */
+  public boolean release(T node){
+    if(node.idlePool != null){
+      logger.warning("node already released: " + node.getName());
+      return false;
+    }
+
+    if(releaseHook != null)
+      releaseHook.accept(node);
+
+    boolean keep;
+
+    synchronized(this){
+      inUseCount = Math.max(0, inUseCount - 1);
+      keep = idleNodes.size() < maxIdleCount;
+
+      if(keep){
+        node.idlePool = this;
+      } else {
+        discardedCount++;
+      }
+    }
+
+    if(!keep){
+      node.destroy();
+      return true;
+    }
+
+    node.recycle();
+
+    synchronized(this){
+      idleNodes.add(node);
+    }
+
+    return true;
+  }
+
+  /** Creates nodes until the given number of idle nodes is available, so they don't have to be created later */
+  public void prefill(int idleCount){
+    while(getIdleCount() < idleCount){
+      T node = factory.get();
+
+      synchronized(this){
+        createdCount++;
+        node.idlePool = this;
+        idleNodes.add(node);
+      }
+    }
+  }
+
+  /** Destroys all idle nodes */
+  public void clear(){
+    while(true){
+      T node;
+
+      synchronized(this){
+        node = idleNodes.poll();
+        if(node == null)
+          break;
+        node.idlePool = null;
+        discardedCount++;
+      }
+
+      node.destroy();
+    }
+  }
+
+  // hooks // // // // //
+
+  /** @param func Called with every node returned by acquire, both new and reused nodes */
+  public NodePool<T> setAcquireHook(Consumer<T> func){
+    acquireHook = func;
+    return this;
+  }
+
+  /** @param func Called with every released node, before it's recycled */
+  public NodePool<T> setReleaseHook(Consumer<T> func){
+    releaseHook = func;
+    return this;
+  }
+
+  /** @param count Maximum number of idle nodes to keep; nodes released beyond this number are destroyed */
+  public NodePool<T> setMaxIdleCount(int count){
+    maxIdleCount = Math.max(0, count);
+    return this;
+  }
+
+  public int getMaxIdleCount(){
+    return maxIdleCount;
+  }
+
+  // metrics // // // // //
+
+  /** @return int - the number of released nodes available for reuse */
+  public synchronized int getIdleCount(){
+    return idleNodes.size();
+  }
+
+  /** @return int - the number of acquired nodes that haven't been released yet */
+  public synchronized int getInUseCount(){
+    return inUseCount;
+  }
+
+  /** @return int - the number of nodes created by this pool */
+  public synchronized int getCreatedCount(){
+    return createdCount;
+  }
+
+  /** @return int - the number of acquire calls that returned a released node instead of a new node */
+  public synchronized int getReusedCount(){
+    return reusedCount;
+  }
+
+  /** @return int - the number of nodes destroyed by this pool (see setMaxIdleCount and clear) */
+  public synchronized int getDiscardedCount(){
+    return discardedCount;
+  }
+}
@@ -0,0 +1,597 @@
+package com.fuse.ui;
+
+import java.util.Arrays;
+
+import processing.core.PMatrix3D;
+import processing.core.PVector;
+
+/**
+ * Node that manages a large number of lightweight (2D) elements, stored in parallel primitive arrays
+ * instead of one Node instance per element. Elements are referred to by int handles (see createElement),
+ * can be nested (see setElementParent) and only support position, z-rotation, x/y-scale, size, plane,
+ * visibility and fill color.
+ *
+ * The arena itself is a regular Node; all elements are drawn (back-to-front, by plane) in the arena's
+ * local space when the arena is rendered and elements can be found using getElementAt.
+ * Element global transforms, culling and hit testing are done in single loops over the arrays.
+ */
+public class SceneArena extends Node {
+
+  /** Handle value used for 'no element' */
+  public final static int NONE = -1;
+
+  private final static int INDEX_BITS = 22;
+  private final static int INDEX_MASK = (1 << INDEX_BITS) - 1;
+  private final static int GENERATION_MASK = (1 << (31 - INDEX_BITS)) - 1;
+
+  private int capacity = 0;
+  /** Number of slots in use (including removed slots that weren't reused yet) */
+  private int slotCount = 0;
+  private int elementCount = 0;
+  /** Removed slots, available for reuse */
+  private int[] freeSlots = new int[0];
+  private int freeSlotCount = 0;
+  /** Reusable work stack for removeElement */
+  private int[] removeStack = new int[0];
+
+  // element attributes // // // // //
+  private int[] generations;
+  private boolean[] alive;
+  private boolean[] visible;
+  /** parent slot index, or NONE for elements directly in the arena */
+  private int[] parents;
+  /** nested elements as linked lists; first nested slot and previous/next sibling slots, or NONE */
+  private int[] firstChildren, prevSiblings, nextSiblings;
+  private float[] xs, ys, rotations, scaleXs, scaleYs, widths, heights, planes;
+  private int[] colors;
+
+  // calculated data // // // // //
+  /** 2D affine transformations into the arena's local space; 6 floats (m00, m01, m02, m10, m11, m12) per slot */
+  private float[] transforms;
+  /** Bounding boxes in the arena's local space; 4 floats (minX, minY, maxX, maxY) per slot */
+  private float[] bounds;
+  /** Elements are only drawn and touchable if they and all their ancestors are visible */
+  private boolean[] visibleInArena;
+  /** Update pass in which the slot's calculated data was last updated */
+  private int[] updateStamps;
+  private int updateStamp = 0;
+  /** Slot indices of all live elements, bottom plane first */
+  private int[] drawOrder = new int[0];
+  private long[] sortKeys = new long[0];
+
+  private boolean bTransformsDirty = false;
+  private boolean bOrderDirty = false;
+  private boolean bCulling = true;
+  private int culledCount = 0;
+  private PVector localCorner = new PVector();
+
+  public SceneArena(){
+    this(1024);
+  }
+
+  public SceneArena(int initialCapacity){
+    grow(Math.max(initialCapacity, 16));
+  }
+
+  // element lifecycle // // // // //
+
+  /** @return int - handle of a new (visible, unscaled, zero-size) element, directly in the arena */
+  public int createElement(){
+    return createElement(NONE);
+  }
+
+  /** @return int - handle of a new (visible, unscaled, zero-size) element, nested inside the given parent element */
+  public int createElement(int parentHandle){
+    int parentSlot = NONE;
+
+    if(parentHandle != NONE){
+      parentSlot = slotOf(parentHandle);
+      if(parentSlot == NONE)
+        return NONE;
+    }
+
+    int slot;
+
+    if(freeSlotCount > 0){
+      slot = freeSlots[--freeSlotCount];
+    } else {
+      if(slotCount == INDEX_MASK + 1){
+        logger.warning("SceneArena can't hold any more elements");
+        return NONE;
+      }
+
+      if(slotCount == capacity)
+        grow(capacity * 2);
+
+      slot = slotCount++;
+    }
+
+    alive[slot] = true;
+    visible[slot] = true;
+    parents[slot] = NONE;
+    firstChildren[slot] = prevSiblings[slot] = nextSiblings[slot] = NONE;
+    link(slot, parentSlot);
+    xs[slot] = ys[slot] = rotations[slot] = widths[slot] = heights[slot] = planes[slot] = 0.0f;
+    scaleXs[slot] = scaleYs[slot] = 1.0f;
+    colors[slot] = 0xFFFFFFFF;
+    elementCount++;
+
+    bTransformsDirty = true;
+    bOrderDirty = true;
+    return (generations[slot] << INDEX_BITS) | slot;
+  }
+
+  /** Removes the element and all of its nested elements; their handles become invalid */
+  public void removeElement(int handle){
+    int slot = slotOf(handle);
+    if(slot == NONE)
+      return;
+
+    unlink(slot);
+
+    // free the element and everything nested (directly or indirectly) inside it in a single walk
+    int stackSize = 0;
+    removeStack = pushSlot(removeStack, stackSize++, slot);
+
+    while(stackSize > 0){
+      int s = removeStack[--stackSize];
+
+      for(int child = firstChildren[s]; child != NONE; child = nextSiblings[child])
+        removeStack = pushSlot(removeStack, stackSize++, child);
+
+      free(s);
+    }
+
+    bTransformsDirty = true;
+    bOrderDirty = true;
+  }
+
+  /** Removes all elements; all handles become invalid */
+  public void clearElements(){
+    for(int i=0; i<slotCount; i++){
+      if(alive[i])
+        free(i);
+    }
+
+    bTransformsDirty = true;
+    bOrderDirty = true;
+  }
+
+  /** @return boolean - true if the handle refers to an element that wasn't removed */
+  public boolean isValid(int handle){
+    return slotOf(handle) != NONE;
+  }
+
+  public int getElementCount(){
+    return elementCount;
+  }
+
+  // element attributes // // // // //
+
+  public SceneArena setElementPosition(int handle, float x, float y){
+    int slot = slotOf(handle);
+    if(slot != NONE){
+      xs[slot] = x;
+      ys[slot] = y;
+      bTransformsDirty = true;
+    }
+
+    return this;
+  }
+
+  public float getElementX(int handle){ int slot = slotOf(handle); return slot == NONE ? 0.0f : xs[slot]; }
+  public float getElementY(int handle){ int slot = slotOf(handle); return slot == NONE ? 0.0f : ys[slot]; }
+
+  public SceneArena setElementSize(int handle, float width, float height){
+    int slot = slotOf(handle);
+    if(slot != NONE){
+      widths[slot] = width;
+      heights[slot] = height;
+      bTransformsDirty = true;
+    }
+
+    return this;
+  }
+
+  public float getElementWidth(int handle){ int slot = slotOf(handle); return slot == NONE ? 0.0f : widths[slot]; }
+  public float getElementHeight(int handle){ int slot = slotOf(handle); return slot == NONE ? 0.0f : heights[slot]; }
+
+  /** Sets the element's rotation (in radians) around the z-axis */
+  public SceneArena setElementRotation(int handle, float rotation){
+    int slot = slotOf(handle);
+    if(slot != NONE){
+      rotations[slot] = rotation;
+      bTransformsDirty = true;
+    }
+
+    return this;
+  }
+
+  public float getElementRotation(int handle){ int slot = slotOf(handle); return slot == NONE ? 0.0f : rotations[slot]; }
+
+  public SceneArena setElementScale(int handle, float scaleX, float scaleY){
+    int slot = slotOf(handle);
+    if(slot != NONE){
+      scaleXs[slot] = scaleX;
+      scaleYs[slot] = scaleY;
+      bTransformsDirty = true;
+    }
+
+    return this;
+  }
+
+  public float getElementScaleX(int handle){ int slot = slotOf(handle); return slot == NONE ? 1.0f : scaleXs[slot]; }
+  public float getElementScaleY(int handle){ int slot = slotOf(handle); return slot == NONE ? 1.0f : scaleYs[slot]; }
+
+  /** Elements with a higher plane are drawn on top of (and touched before) elements with a lower plane, like Node.setPlane */
+  public SceneArena setElementPlane(int handle, float plane){
+    int slot = slotOf(handle);
+    if(slot != NONE && planes[slot] != plane){
+      planes[slot] = plane;
+      bOrderDirty = true;
+    }
+
+    return this;
+  }
+
+  public float getElementPlane(int handle){ int slot = slotOf(handle); return slot == NONE ? 0.0f : planes[slot]; }
+
+  public SceneArena setElementVisible(int handle, boolean visible){
+    int slot = slotOf(handle);
+    if(slot != NONE && this.visible[slot] != visible){
+      this.visible[slot] = visible;
+      bTransformsDirty = true;
+    }
+
+    return this;
+  }
+
+  public boolean isElementVisible(int handle){ int slot = slotOf(handle); return slot != NONE && visible[slot]; }
+
+  public SceneArena setElementColor(int handle, int color){
+    int slot = slotOf(handle);
+    if(slot != NONE)
+      colors[slot] = color;
+    return this;
+  }
+
+  public int getElementColor(int handle){ int slot = slotOf(handle); return slot == NONE ? 0 : colors[slot]; }
+
+  /** Nests the element inside the given parent element (or directly in the arena when parentHandle is NONE) */
+  public SceneArena setElementParent(int handle, int parentHandle){
+    int slot = slotOf(handle);
+    int parentSlot = parentHandle == NONE ? NONE : slotOf(parentHandle);
+
+    if(slot == NONE || (parentHandle != NONE && parentSlot == NONE))
+      return this;
+
+    // don't create cycles
+    for(int p = parentSlot; p != NONE; p = parents[p]){
+      if(p == slot){
+        logger.warning("can't nest an element inside itself");
+        return this;
+      }
+    }
+
+    unlink(slot);
+    link(slot, parentSlot);
+    bTransformsDirty = true;
+    return this;
+  }
+
+  /** @return int - handle of the parent element, or NONE */
+  public int getElementParent(int handle){
+    int slot = slotOf(handle);
+    if(slot == NONE || parents[slot] == NONE)
+      return NONE;
+    return handleOf(parents[slot]);
+  }
+
+  /**
+   * Loads the element's position in the arena's local space into the given vector
+   * @return PVector - the given out vector
+   */
+  public PVector getElementArenaPosition(int handle, PVector out){
+    int slot = slotOf(handle);
+    if(slot == NONE)
+      return out;
+
+    updateElements();
+    out.set(transforms[slot*6+2], transforms[slot*6+5], 0.0f);
+    return out;
+  }
+
+  // culling // // // // //
+
+  /**
+   * When enabled (default) elements whose bounds are completely outside the PGraphics area are not drawn.
+   * Disable this when drawElement draws outside of the element's size.
+   */
+  public SceneArena setElementCulling(boolean enable){
+    bCulling = enable;
+    return this;
+  }
+
+  public boolean isElementCulling(){
+    return bCulling;
+  }
+
+  /** @return int - the number of elements that were skipped by culling during the last draw */
+  public int getCulledElementCount(){
+    return culledCount;
+  }
+
+  // drawing // // // // //
+
+  @Override public void draw(){
+    updateElements();
+    culledCount = 0;
+
+    // viewport in the arena's local space
+    float minX = Float.NEGATIVE_INFINITY, minY = Float.NEGATIVE_INFINITY;
+    float maxX = Float.POSITIVE_INFINITY, maxY = Float.POSITIVE_INFINITY;
+
+    PMatrix3D mat = getToLocalMatrix();
+    if(bCulling && mat.m02 == 0.0f && mat.m12 == 0.0f && mat.m20 == 0.0f && mat.m21 == 0.0f && mat.m23 == 0.0f){
+      minX = minY = Float.POSITIVE_INFINITY;
+      maxX = maxY = Float.NEGATIVE_INFINITY;
+
+      for(int corner=0; corner<4; corner++){
+        float sx = (corner & 1) == 0 ? 0.0f : pg.width;
+        float sy = (corner & 2) == 0 ? 0.0f : pg.height;
+        float lx = mat.m00*sx + mat.m01*sy + mat.m03;
+        float ly = mat.m10*sx + mat.m11*sy + mat.m13;
+        minX = Math.min(minX, lx);
+        minY = Math.min(minY, ly);
+        maxX = Math.max(maxX, lx);
+        maxY = Math.max(maxY, ly);
+      }
+    }
+
+    for(int i=0; i<elementCount; i++){
+      int slot = drawOrder[i];
+
+      if(!visibleInArena[slot])
+        continue;
+
+      int b = slot*4;
+      if(bounds[b] > maxX || bounds[b+2] < minX || bounds[b+1] > maxY || bounds[b+3] < minY){
+        culledCount++;
+        continue;
+      }
+
+      int t = slot*6;
+      pg.pushMatrix();
+      pg.applyMatrix(transforms[t], transforms[t+1], transforms[t+2], transforms[t+3], transforms[t+4], transforms[t+5]);
+      drawElement(handleOf(slot), widths[slot], heights[slot]);
+      pg.popMatrix();
+    }
+  }
+
+  /**
+   * Draws a single element in its own local space; by default a rectangle in the element's color.
+   * Override for custom element visuals.
+   */
+  protected void drawElement(int handle, float width, float height){
+    pg.noStroke();
+    pg.fill(colors[handle & INDEX_MASK]);
+    pg.rect(0.0f, 0.0f, width, height);
+  }
+
+  // hit testing // // // // //
+
+  /** @return int - handle of the top-most visible element at the given (global) position, or NONE */
+  public int getElementAt(PVector globalPos){
+    PVector localPos = toLocal(globalPos, localCorner);
+    return getElementAtLocal(localPos.x, localPos.y);
+  }
+
+  /** @return int - handle of the top-most visible element at the given position in the arena's local space, or NONE */
+  public int getElementAtLocal(float x, float y){
+    updateElements();
+
+    for(int i=elementCount-1; i>=0; i--){
+      int slot = drawOrder[i];
+
+      if(!visibleInArena[slot])
+        continue;
+
+      int b = slot*4;
+      if(x < bounds[b] || x > bounds[b+2] || y < bounds[b+1] || y > bounds[b+3])
+        continue;
+
+      // localize into the element's space
+      int t = slot*6;
+      float m00 = transforms[t], m01 = transforms[t+1], m10 = transforms[t+3], m11 = transforms[t+4];
+      float det = m00*m11 - m01*m10;
+      if(det == 0.0f)
+        continue;
+
+      float dx = x - transforms[t+2], dy = y - transforms[t+5];
+      float lx = (m11*dx - m01*dy) / det;
+      float ly = (m00*dy - m10*dx) / det;
+
+      if(lx >= 0.0f && ly >= 0.0f && lx < widths[slot] && ly < heights[slot])
+        return handleOf(slot);
+    }
+
+    return NONE;
+  }
+
+  // internals // // // // //
+
+  private int slotOf(int handle){
+    if(handle < 0)
+      return NONE;
+
+    int slot = handle & INDEX_MASK;
+    if(slot >= slotCount || !alive[slot] || generations[slot] != (handle >>> INDEX_BITS))
+      return NONE;
+
+    return slot;
+  }
+
+  private int handleOf(int slot){
+    return (generations[slot] << INDEX_BITS) | slot;
+  }
+
+  private void free(int slot){
+    alive[slot] = false;
+    parents[slot] = firstChildren[slot] = prevSiblings[slot] = nextSiblings[slot] = NONE;
+    generations[slot] = (generations[slot] + 1) & GENERATION_MASK;
+    elementCount--;
+
+    if(freeSlotCount == freeSlots.length)
+      freeSlots = Arrays.copyOf(freeSlots, Math.max(16, freeSlots.length * 2));
+    freeSlots[freeSlotCount++] = slot;
+  }
+
+  private static int[] pushSlot(int[] stack, int index, int slot){
+    if(index == stack.length)
+      stack = Arrays.copyOf(stack, Math.max(16, stack.length * 2));
+    stack[index] = slot;
+    return stack;
+  }
+
+  /** Adds the slot to the parent slot's nested elements (if any) */
+  private void link(int slot, int parentSlot){
+    parents[slot] = parentSlot;
+    if(parentSlot == NONE)
+      return;
+
+    int first = firstChildren[parentSlot];
+    prevSiblings[slot] = NONE;
+    nextSiblings[slot] = first;
+    if(first != NONE)
+      prevSiblings[first] = slot;
+    firstChildren[parentSlot] = slot;
+  }
+
+  /** Removes the slot from its parent slot's nested elements and makes it a top-level slot */
+  private void unlink(int slot){
+    int parentSlot = parents[slot];
+    if(parentSlot == NONE)
+      return;
+
+    int prev = prevSiblings[slot];
+    int next = nextSiblings[slot];
+
+    if(prev == NONE)
+      firstChildren[parentSlot] = next;
+    else
+      nextSiblings[prev] = next;
+
+    if(next != NONE)
+      prevSiblings[next] = prev;
+
+    parents[slot] = prevSiblings[slot] = nextSiblings[slot] = NONE;
+  }
+
+  private void grow(int newCapacity){
+    capacity = newCapacity;
+    generations = generations == null ? new int[capacity] : Arrays.copyOf(generations, capacity);
+    alive = alive == null ? new boolean[capacity] : Arrays.copyOf(alive, capacity);
+    visible = visible == null ? new boolean[capacity] : Arrays.copyOf(visible, capacity);
+    parents = parents == null ? new int[capacity] : Arrays.copyOf(parents, capacity);
+    firstChildren = firstChildren == null ? new int[capacity] : Arrays.copyOf(firstChildren, capacity);
+    prevSiblings = prevSiblings == null ? new int[capacity] : Arrays.copyOf(prevSiblings, capacity);
+    nextSiblings = nextSiblings == null ? new int[capacity] : Arrays.copyOf(nextSiblings, capacity);
+    xs = xs == null ? new float[capacity] : Arrays.copyOf(xs, capacity);
+    ys = ys == null ? new float[capacity] : Arrays.copyOf(ys, capacity);
+    rotations = rotations == null ? new float[capacity] : Arrays.copyOf(rotations, capacity);
+    scaleXs = scaleXs == null ? new float[capacity] : Arrays.copyOf(scaleXs, capacity);
+    scaleYs = scaleYs == null ? new float[capacity] : Arrays.copyOf(scaleYs, capacity);
+    widths = widths == null ? new float[capacity] : Arrays.copyOf(widths, capacity);
+    heights = heights == null ? new float[capacity] : Arrays.copyOf(heights, capacity);
+    planes = planes == null ? new float[capacity] : Arrays.copyOf(planes, capacity);
+    colors = colors == null ? new int[capacity] : Arrays.copyOf(colors, capacity);
+    transforms = transforms == null ? new float[capacity*6] : Arrays.copyOf(transforms, capacity*6);
+    bounds = bounds == null ? new float[capacity*4] : Arrays.copyOf(bounds, capacity*4);
+    visibleInArena = visibleInArena == null ? new boolean[capacity] : Arrays.copyOf(visibleInArena, capacity);
+    updateStamps = updateStamps == null ? new int[capacity] : Arrays.copyOf(updateStamps, capacity);
+  }
+
+  /** Recalculates transformations, bounds and draw order where necessary */
+  private void updateElements(){
+    if(bTransformsDirty){
+      bTransformsDirty = false;
+      updateStamp++;
+
+      for(int slot=0; slot<slotCount; slot++){
+        if(alive[slot] && updateStamps[slot] != updateStamp)
+          updateTransform(slot);
+      }
+    }
+
+    if(bOrderDirty){
+      bOrderDirty = false;
+
+      if(sortKeys.length < elementCount){
+        sortKeys = new long[capacity];
+        drawOrder = new int[capacity];
+      }
+
+      int count = 0;
+      for(int slot=0; slot<slotCount; slot++){
+        if(!alive[slot])
+          continue;
+
+        // sortable int representation of the (float) plane in the high bits, slot in the low bits
+        int bits = Float.floatToIntBits(planes[slot]);
+        bits ^= (bits >> 31) & 0x7FFFFFFF;
+        sortKeys[count++] = ((long)bits << 32) | slot;
+      }
+
+      Arrays.sort(sortKeys, 0, count);
+
+      for(int i=0; i<count; i++)
+        drawOrder[i] = (int)sortKeys[i];
+    }
+  }
+
+  private void updateTransform(int slot){
+    int parent = parents[slot];
+    int t = slot*6;
+
+    // local transformation (translate, rotate, scale)
+    float cos = (float)Math.cos(rotations[slot]), sin = (float)Math.sin(rotations[slot]);
+    float l00 = cos * scaleXs[slot], l01 = -sin * scaleYs[slot];
+    float l10 = sin * scaleXs[slot], l11 = cos * scaleYs[slot];
+
+    if(parent == NONE){
+      transforms[t] = l00;
+      transforms[t+1] = l01;
+      transforms[t+2] = xs[slot];
+      transforms[t+3] = l10;
+      transforms[t+4] = l11;
+      transforms[t+5] = ys[slot];
+      visibleInArena[slot] = visible[slot];
+    } else {
+      // parents can be stored after their children, make sure they're up-to-date
+      if(updateStamps[parent] != updateStamp)
+        updateTransform(parent);
+
+      int p = parent*6;
+      float p00 = transforms[p], p01 = transforms[p+1], p02 = transforms[p+2];
+      float p10 = transforms[p+3], p11 = transforms[p+4], p12 = transforms[p+5];
+      transforms[t] = p00*l00 + p01*l10;
+      transforms[t+1] = p00*l01 + p01*l11;
+      transforms[t+2] = p00*xs[slot] + p01*ys[slot] + p02;
+      transforms[t+3] = p10*l00 + p11*l10;
+      transforms[t+4] = p10*l01 + p11*l11;
+      transforms[t+5] = p10*xs[slot] + p11*ys[slot] + p12;
+      visibleInArena[slot] = visible[slot] && visibleInArena[parent];
+    }
+
+    // bounding box
+    float xw = transforms[t] * widths[slot], xh = transforms[t+1] * heights[slot];
+    float yw = transforms[t+3] * widths[slot], yh = transforms[t+4] * heights[slot];
+    int b = slot*4;
+    bounds[b] = transforms[t+2] + Math.min(0.0f, xw) + Math.min(0.0f, xh);
+    bounds[b+1] = transforms[t+5] + Math.min(0.0f, yw) + Math.min(0.0f, yh);
+    bounds[b+2] = transforms[t+2] + Math.max(0.0f, xw) + Math.max(0.0f, xh);
+    bounds[b+3] = transforms[t+5] + Math.max(0.0f, yw) + Math.max(0.0f, yh);
+
+    updateStamps[slot] = updateStamp;
+  }
+}
@@ -28,6 +28,23 @@ public class ShapeNode extends Node {
     super.setName(nodeName);
   }
 
+  @Override
+  public void recycle(){
+    super.recycle();
+    fillColor = null;
+    if(pg != null){
+      pg.colorMode(PGraphics.RGB, 255);
+      fillColor = pg.color(255);
+    }
+
+    fillAlpha = null;
+    fillAlphaColor = null;
+    strokeColor = null;
+    strokeWeight = null;
+    blendMode = null;
+    this.alphaState.push((Float v) -> this.updateAlpha());
+  }
+
   /** Draw this node's image at this Node's position */
   @Override public void draw(){
     this.beforeDraw();
@@ -0,0 +1,258 @@
+package com.fuse.ui;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import processing.core.PVector;
+
+/**
+ * Uniform grid over the global (screen-space) bounding boxes of all nodes in a subtree,
+ * used by TouchManager (see TouchManager.enableSpatialIndex) to find the few nodes
+ * that could be under a touch position without visiting the entire scene.
+ *
+ * Nodes notify the index of transformation, size and hierarchy changes; the bounds
+ * of changed nodes are only recalculated on the next query.
+ */
+public class SpatialIndex {
+
+  /** Per-node bookkeeping, referenced by the node itself */
+  static class Entry {
+    final SpatialIndex index;
+    final Node node;
+    /** range of grid cells this node is currently registered in (empty when minX > maxX) */
+    int minX = 1, minY = 1, maxX = 0, maxY = 0;
+    /** when true, this node is registered in the list of nodes that are always checked */
+    boolean bUnbounded = false;
+    boolean bDirty = false;
+
+    Entry(SpatialIndex index, Node node){
+      this.index = index;
+      this.node = node;
+    }
+  }
+
+  /** Nodes covering more than this number of cells aren't put in the grid, but checked for every query */
+  private final static int MAX_CELLS_PER_NODE = 64;
+
+  private Node root = null;
+  private float cellSize;
+  private Map<Long, ArrayList<Node>> cells = new HashMap<>();
+  private List<Node> unboundedNodes = new ArrayList<>();
+  private List<Entry> dirtyEntries = new ArrayList<>();
+  private int nodeCount = 0;
+  private float[] bounds = new float[4];
+
+  public SpatialIndex(){
+    this(128.0f);
+  }
+
+  public SpatialIndex(float cellSize){
+    this.cellSize = cellSize;
+  }
+
+  public float getCellSize(){
+    return cellSize;
+  }
+
+  /** @return int - the number of nodes currently registered in this index */
+  public int size(){
+    return nodeCount;
+  }
+
+  public Node getRoot(){
+    return root;
+  }
+
+  /** Registers all nodes in the given node's subtree (current and future) after unregistering the current root's subtree */
+  public synchronized void setRoot(Node newRoot){
+    if(root != null)
+      unregisterSubtree(root);
+
+    root = newRoot;
+
+    if(root != null)
+      registerSubtree(root);
+  }
+
+  /** Unregisters all nodes; the index can't be used anymore after this */
+  public void destroy(){
+    setRoot(null);
+  }
+
+  /**
+   * Loads all nodes whose bounds could contain the given (global) position into targetList,
+   * callers still have to verify the candidates using Node.isInside.
+   */
+  public synchronized void loadCandidates(List<Node> targetList, PVector pos){
+    refresh();
+
+    targetList.addAll(unboundedNodes);
+
+    ArrayList<Node> cell = cells.get(cellKey(cellIndex(pos.x), cellIndex(pos.y)));
+    if(cell != null)
+      targetList.addAll(cell);
+  }
+
+  // node hooks // // // // //
+
+  /** Gives the node (and its subtree) the same index membership as the given new parent */
+  static void updateMembership(Node node, Node newParent){
+    Entry entry = node.spatialIndexEntry;
+
+    // the root of an index stays registered, regardless of its own parent
+    if(entry != null && entry.index.root == node)
+      return;
+
+    SpatialIndex newIndex = newParent == null || newParent.spatialIndexEntry == null ? null : newParent.spatialIndexEntry.index;
+    SpatialIndex oldIndex = entry == null ? null : entry.index;
+
+    if(newIndex == oldIndex)
+      return;
+
+    if(oldIndex != null){
+      synchronized(oldIndex){
+        oldIndex.unregisterSubtree(node);
+      }
+    }
+
+    if(newIndex != null){
+      synchronized(newIndex){
+        newIndex.registerSubtree(node);
+      }
+    }
+  }
+
+  /** Flags the node's bounds for recalculation */
+  static void invalidate(Node node){
+    Entry entry = node.spatialIndexEntry;
+    if(entry == null)
+      return;
+
+    synchronized(entry.index){
+      if(!entry.bDirty && node.spatialIndexEntry == entry){
+        entry.bDirty = true;
+        entry.index.dirtyEntries.add(entry);
+      }
+    }
+  }
+
+  // internals // // // // //
+
+  private void registerSubtree(Node node){
+    Entry entry = new Entry(this, node);
+    node.spatialIndexEntry = entry;
+    nodeCount++;
+    entry.bDirty = true;
+    dirtyEntries.add(entry);
+
+    for(Node childNode : node.getChildNodesSnapshot())
+      registerSubtree(childNode);
+  }
+
+  private void unregisterSubtree(Node node){
+    Entry entry = node.spatialIndexEntry;
+
+    if(entry != null && entry.index == this){
+      removeFromCells(entry);
+      // dirtyEntries is cleaned up in refresh
+      node.spatialIndexEntry = null;
+      nodeCount--;
+    }
+
+    for(Node childNode : node.getChildNodesSnapshot())
+      unregisterSubtree(childNode);
+  }
+
+  /** Recalculates the cells of all nodes whose bounds changed since the previous refresh */
+  private void refresh(){
+    for(int i=0; i<dirtyEntries.size(); i++){
+      Entry entry = dirtyEntries.get(i);
+      entry.bDirty = false;
+
+      // unregistered since it was flagged?
+      if(entry.node.spatialIndexEntry != entry)
+        continue;
+
+      removeFromCells(entry);
+      addToCells(entry);
+    }
+
+    dirtyEntries.clear();
+  }
+
+  private void addToCells(Entry entry){
+    Node node = entry.node;
+
+    // nodes without surface can't be touched
+    if(node.getWidth() <= 0.0f || node.getHeight() <= 0.0f)
+      return;
+
+    // only for 2D transformations the screen-space bounding box of the node is known
+    if(!node.loadGlobalBounds(bounds)){
+      entry.bUnbounded = true;
+      unboundedNodes.add(node);
+      return;
+    }
+
+    int x0 = cellIndex(bounds[0]), x1 = cellIndex(bounds[2]);
+    int y0 = cellIndex(bounds[1]), y1 = cellIndex(bounds[3]);
+
+    if((long)(x1-x0+1) * (long)(y1-y0+1) > MAX_CELLS_PER_NODE){
+      entry.bUnbounded = true;
+      unboundedNodes.add(node);
+      return;
+    }
+
+    for(int x=x0; x<=x1; x++){
+      for(int y=y0; y<=y1; y++){
+        Long key = cellKey(x,y);
+        ArrayList<Node> cell = cells.get(key);
+
+        if(cell == null){
+          cell = new ArrayList<>(4);
+          cells.put(key, cell);
+        }
+
+        cell.add(node);
+      }
+    }
+
+    entry.minX = x0;
+    entry.maxX = x1;
+    entry.minY = y0;
+    entry.maxY = y1;
+  }
+
+  private void removeFromCells(Entry entry){
+    if(entry.bUnbounded){
+      unboundedNodes.remove(entry.node);
+      entry.bUnbounded = false;
+    }
+
+    for(int x=entry.minX; x<=entry.maxX; x++){
+      for(int y=entry.minY; y<=entry.maxY; y++){
+        Long key = cellKey(x,y);
+        ArrayList<Node> cell = cells.get(key);
+
+        if(cell != null){
+          cell.remove(entry.node);
+          if(cell.isEmpty())
+            cells.remove(key);
+        }
+      }
+    }
+
+    entry.minX = entry.minY = 1;
+    entry.maxX = entry.maxY = 0;
+  }
+
+  private int cellIndex(float value){
+    return (int)Math.floor(value / cellSize);
+  }
+
+  private static long cellKey(int x, int y){
+    return ((long)x << 32) | (y & 0xffffffffL);
+  }
+}
@@ -35,6 +35,21 @@ public class TextNode extends ShapeNode {
     super.setName(nodeName);
   }
 
+  @Override
+  public void recycle(){
+    super.recycle();
+    text = "";
+    textSize = 20f;
+    textOffset.set(0.0f, 0.0f, 0.0f);
+    font = null;
+    alignX = PApplet.LEFT;
+    alignY = PApplet.BASELINE;
+    frameColor = frameColorAlpha = null;
+    framePadding = new PVector(3.0f, 3.0f, 0.0f);
+    bCropEnabled = true;
+    this.alphaState.push((Float v) -> this.updateAlpha());
+  }
+
   public TextNode setText(String txt){ text = txt == null ? "" : txt; return this; }
   public String getText(){ return text; }
 
@@ -27,6 +27,8 @@ public class TouchEvent {
   public Node node;
   /** Latest node that was touched */
   public Node mostRecentNode;
+  /** Recycle counts of node and mostRecentNode when they were assigned by the TouchManager (see Node.recycle) */
+  int nodeRecycleCount = 0, mostRecentNodeRecycleCount = 0;
   /** The time in millis */
   public Long time;
   public Long startTime;
@@ -88,6 +90,8 @@ public class TouchEvent {
     touchEvent.startPosition = startPosition == null ? null : startPosition.get();
     touchEvent.node = node;
     touchEvent.mostRecentNode = mostRecentNode;
+    touchEvent.nodeRecycleCount = nodeRecycleCount;
+    touchEvent.mostRecentNodeRecycleCount = mostRecentNodeRecycleCount;
     touchEvent.time = time == null ? null : (long) time;
     touchEvent.startTime = startTime == null ? null : (long) startTime;
     touchEvent.velocity = velocity == null ? null : velocity.get();
@@ -102,11 +106,19 @@ public class TouchEvent {
 
   /** @return PVector The vector form the original position (the position at which the touch started) and the current position */
   public PVector offset(){
-    if(startPosition == null || position == null)
-      return new PVector(0.0f, 0.0f, 0.0f);
-    PVector result = position.get();
-    result.sub(startPosition);
-    return result;
+    return offset(new PVector());
+  }
+
+  /** Allocation-free alternative to offset() */
+  public PVector offset(PVector out){
+    if(startPosition == null || position == null){
+      out.set(0.0f, 0.0f, 0.0f);
+      return out;
+    }
+
+    out.set(position);
+    out.sub(startPosition);
+    return out;
   }
 
   public Long getDuration(){
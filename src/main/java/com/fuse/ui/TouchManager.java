@@ -32,6 +32,9 @@ public class TouchManager extends TouchReceiver {
 
   private ConcurrentLinkedQueue<TouchEvent> touchEventQueue;
   private Map<Integer, TouchEvent> activeTouchEvents;
+  /** Optional index for finding touched nodes (see enableSpatialIndex) */
+  private SpatialIndex spatialIndex = null;
+  private List<Node> candidateNodes = null;
   //  private final static int MAX_CLICK_HISTORY_SIZE = 10; // no need to remember more; only remembering for double-click events, but have to consider multiple simultanous users
   //  private ConcurrentLinkedDeque<TouchEvent> clickHistory;
 
@@ -175,10 +178,24 @@ public class TouchManager extends TouchReceiver {
     if(event.velocitySmoothed == null)
       event.velocitySmoothed = event.velocity.get(); //new PVector(0.0f, 0.0f, 0.0f);
 
+    if(event.node != null)
+      event.nodeRecycleCount = event.node.getRecycleCount();
+    if(event.mostRecentNode != null)
+      event.mostRecentNodeRecycleCount = event.mostRecentNode.getRecycleCount();
+
     // store (this should be the only place where new events are written into activeTouchEvents)
     activeTouchEvents.put(event.touchId, event);
   }
 
+  /** Drops the event's references to nodes that were recycled (see NodePool) after they got assigned to the event */
+  private static void dropRecycledNodes(TouchEvent event){
+    if(event.node != null && event.node.getRecycleCount() != event.nodeRecycleCount)
+      event.node = null;
+
+    if(event.mostRecentNode != null && event.mostRecentNode.getRecycleCount() != event.mostRecentNodeRecycleCount)
+      event.mostRecentNode = null;
+  }
+
   /// finds the targeted node and triggers events
   private void processTouchEvent(TouchEvent event){
     if(event == null || event.eventType == null){
@@ -211,6 +228,8 @@ public class TouchManager extends TouchReceiver {
           }
         }
 
+        dropRecycledNodes(event);
+
         { // Check if the touch moved to another element
           Node n = getNodeForTouchPosition(event.position);
           Node prev = event.mostRecentNode == null ? event.node : event.mostRecentNode;
@@ -219,6 +238,8 @@ public class TouchManager extends TouchReceiver {
           if(n != prev){
             // update event
             event.mostRecentNode = n;
+            if(n != null)
+              event.mostRecentNodeRecycleCount = n.getRecycleCount();
 
             // prepare touch exit event
             //TouchEvent tmpEvent = event.copy();
@@ -260,6 +281,8 @@ public class TouchManager extends TouchReceiver {
           }
         }
 
+        dropRecycledNodes(event);
+
         { // Check if the touch moved to another element
           Node n = getNodeForTouchPosition(event.position);
           Node prev = event.mostRecentNode == null ? event.node : event.mostRecentNode;
@@ -268,6 +291,8 @@ public class TouchManager extends TouchReceiver {
           if(n != prev){
             // update event
             event.mostRecentNode = n;
+            if(n != null)
+              event.mostRecentNodeRecycleCount = n.getRecycleCount();
 
             // prepare touch exit event
             //TouchEvent tmpEvent = event.copy();
@@ -347,6 +372,7 @@ public class TouchManager extends TouchReceiver {
 
             // trigger touch click events
             this.receiveTouchEvent(event);
+            dropRecycledNodes(event);
 
             if(event.node != null){
               // logger.finest("TouchManager triggering TOUCH_CLICK event on Node: "+event.node.getName());
@@ -375,6 +401,9 @@ public class TouchManager extends TouchReceiver {
         return;
     }
 
+    // listeners might have released nodes
+    dropRecycledNodes(event);
+
     // trigger appropriate events on event's original node
     if(event.node != null){
       event.node.receiveTouchEvent(event);
@@ -394,12 +423,52 @@ public class TouchManager extends TouchReceiver {
 
   public void setNode(Node newNode){
     this.node = newNode;
+
+    if(spatialIndex != null)
+      spatialIndex.setRoot(newNode);
+  }
+
+  /**
+   * Maintains a grid of the screen-space bounds of all nodes in the scene, so
+   * finding the node under a touch only needs to check the nodes in a single grid cell.
+   * Recommended for (large) scenes with many interactive nodes.
+   */
+  public void enableSpatialIndex(){
+    enableSpatialIndex(128.0f);
+  }
+
+  /** @param cellSize Size (in pixels) of the square grid cells */
+  public void enableSpatialIndex(float cellSize){
+    disableSpatialIndex();
+    spatialIndex = new SpatialIndex(cellSize);
+    candidateNodes = new ArrayList<>();
+    spatialIndex.setRoot(this.node);
+  }
+
+  public void disableSpatialIndex(){
+    if(spatialIndex == null)
+      return;
+
+    spatialIndex.destroy();
+    spatialIndex = null;
+    candidateNodes = null;
+  }
+
+  public boolean isSpatialIndexEnabled(){
+    return spatialIndex != null;
+  }
+
+  public SpatialIndex getSpatialIndex(){
+    return spatialIndex;
   }
 
   public Node getNodeForTouchPosition(PVector pos){
     if(this.node == null)
       return null;
 
+    if(spatialIndex != null)
+      return getIndexedNodeForTouchPosition(pos);
+
     List<Node> nodes = new ArrayList<Node>();
     if(node != null)
       loadNodesUnderPosition(nodes, node, pos);
@@ -414,9 +483,75 @@ public class TouchManager extends TouchReceiver {
     return nodes.get(0);
   }
 
+  /** Same result as the recursive lookup, but only checks the candidates provided by the spatial index */
+  private Node getIndexedNodeForTouchPosition(PVector pos){
+    Node result = null;
+
+    synchronized(candidateNodes){
+      candidateNodes.clear();
+      spatialIndex.loadCandidates(candidateNodes, pos);
+
+      for(int i=0; i<candidateNodes.size(); i++){
+        Node n = candidateNodes.get(i);
+
+        if(!n.isInteractive() || !n.isInside(pos))
+          continue;
+
+        if(!n.isInsideClipping(pos))
+          continue;
+
+        if(result == null || n.getPlane() > result.getPlane()
+          || (n.getPlane() == result.getPlane() && isBeforeInPostOrder(n, result)))
+          result = n;
+      }
+
+      candidateNodes.clear();
+    }
+
+    if(result == null)
+      this.logger.fine("no node found for touch event");
+
+    return result;
+  }
+
+  /**
+   * The recursive lookup lists children before their parent and earlier siblings before later
+   * ones; among nodes on the same plane the first in that (post-)order wins.
+   */
+  private static boolean isBeforeInPostOrder(Node a, Node b){
+    int depthA = 0, depthB = 0;
+    for(Node n = a.getParent(); n != null; n = n.getParent()) depthA++;
+    for(Node n = b.getParent(); n != null; n = n.getParent()) depthB++;
+
+    Node ancestorA = a, ancestorB = b;
+    while(depthA > depthB){ ancestorA = ancestorA.getParent(); depthA--; }
+    while(depthB > depthA){ ancestorB = ancestorB.getParent(); depthB--; }
+
+    // one is an ancestor of the other; offspring come first
+    if(ancestorA == ancestorB)
+      return ancestorA != a;
+
+    while(ancestorA.getParent() != ancestorB.getParent()){
+      ancestorA = ancestorA.getParent();
+      ancestorB = ancestorB.getParent();
+    }
+
+    Node common = ancestorA.getParent();
+    // in separate trees; shouldn't happen within the same scene
+    if(common == null)
+      return false;
+
+    return common.indexOf(ancestorA) < common.indexOf(ancestorB);
+  }
+
   private void loadNodesUnderPosition(List<Node> targetList, Node root, PVector pos){
     // if (root == null)
     //   return;
+
+    // skip entire branches that can't contain the position
+    if(!root.subtreeBoundsContain(pos))
+      return;
+
     boolean rootContains = root.isInside(pos);
 
     // // handle touch clip (only contained child nodes will respond to touch events)
@@ -425,15 +560,14 @@ public class TouchManager extends TouchReceiver {
     // }
 
     // recursive; also check child's children and add them before the current root node (so they appear before it even if they are on the same plane)
-    for(Node childNode : root.getChildNodes()) {
+    for(Node childNode : root.getChildNodesSnapshot()) {
       loadNodesUnderPosition(targetList, childNode, pos);
     }
 
     if(root.isInteractive() && rootContains) {
       // if this node has a clipping node then the touch
-      // only applies to this node if it's within the clipping area
-      Node clipNode = root.getClippingNode();
-      if(clipNode == null || clipNode.isInside(pos))
+      // only applies to this node if it's within the (nested) clipping area
+      if(root.isInsideClipping(pos))
         targetList.add(root);
     }
   }
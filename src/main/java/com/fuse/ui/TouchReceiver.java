@@ -150,6 +150,11 @@ public class TouchReceiver {
     }
   }*/
 
+  protected void clearActiveTouchEvents(){
+    if(activeTouchEvents != null)
+      activeTouchEvents.clear();
+  }
+
   public List<TouchEvent> getActiveTouchEvents(){
     List<TouchEvent> result = new ArrayList<>();
     if(activeTouchEvents != null)
@@ -158,6 +163,11 @@ public class TouchReceiver {
     return result;
   }
 
+  /** @return int - the number of active touch events, without copying them like getActiveTouchEvents does */
+  public int getActiveTouchEventCount(){
+    return activeTouchEvents == null ? 0 : activeTouchEvents.size();
+  }
+
   public boolean isTouched(){
     return !(activeTouchEvents == null || activeTouchEvents.isEmpty());
   }
@@ -0,0 +1,362 @@
+package com.fuse.ui;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+import com.fuse.ui.extensions.Swiper;
+
+import processing.core.PVector;
+
+/**
+ * Base class for containers that show a (possibly very large) number of items, of which only the items
+ * within the viewport (this node's area, plus an overscan margin) have a node; those nodes are children
+ * of the content node, which gets scrolled by moving it (for example by a Swiper, see enableSwiper,
+ * or SmoothScroll). Item nodes that leave the viewport are unbound and kept for binding other items,
+ * so the per-frame cost (rendering, touch hit testing, updates) depends on the viewport size, not on the item count.
+ */
+public abstract class VirtualContainerNode<T extends Node> extends Node {
+
+  /** Binds item nodes to the data items they show */
+  public interface ItemBinder<T extends Node> {
+    /** Prepares the node to show the item with the given index */
+    void bind(T node, int index);
+    /** Called when the node stops showing the item with the given index (before it's bound to another item) */
+    default void unbind(T node, int index){}
+  }
+
+  private Node contentNode;
+  private Supplier<T> itemFactory;
+  private ItemBinder<T> itemBinder;
+  private int itemCount = 0;
+  private float overscan = 0.0f;
+  private boolean bHorizontal = false;
+  /** Bound item nodes in item order; boundNodes.get(i) shows item firstBoundIndex+i */
+  private ArrayList<T> boundNodes = new ArrayList<>();
+  /** Scratch list for refresh (swapped with boundNodes) */
+  private ArrayList<T> nextBoundNodes = new ArrayList<>();
+  private int firstBoundIndex = 0;
+  /** Unbound item nodes, kept for binding other items */
+  private ArrayDeque<T> spareNodes = new ArrayDeque<>();
+  private int createdItemNodeCount = 0;
+  private boolean bRefreshing = false;
+  private Swiper swiper = null;
+  /** Content and viewport length (and wrapping) the scroll limits were last set for */
+  private float scrollLimitsContentLength = -1.0f, scrollLimitsViewportLength = -1.0f;
+  private boolean bScrollLimitsWrapping = false;
+
+  /**
+   * @param itemFactory Creates item nodes; only called when there are no unbound item nodes available
+   * @param itemBinder Binds item nodes to data items
+   */
+  public VirtualContainerNode(Supplier<T> itemFactory, ItemBinder<T> itemBinder){
+    this.itemFactory = itemFactory;
+    this.itemBinder = itemBinder;
+
+    contentNode = new Node("content");
+    contentNode.setInteractive(false); // we don't want it to take our touch events
+    addChild(contentNode);
+
+    contentNode.positionChangeEvent.addListener((Node n) -> refresh(), this);
+    sizeChangeEvent.addListener((Node n) -> refresh(), this);
+  }
+
+  // layout (implemented by inheriting classes) // // // // //
+
+  /** @return int - index of the first item that (partially) lies at or beyond the given offset along the scroll axis */
+  protected abstract int getFirstItemIndexAt(float offset);
+
+  /** @return int - index of the last item that (partially) lies at or before the given offset along the scroll axis */
+  protected abstract int getLastItemIndexAt(float offset);
+
+  /** Positions (and optionally measures) the given bound nodes, which show the items starting at firstIndex */
+  protected abstract void layoutItems(ArrayList<T> nodes, int firstIndex);
+
+  /** @return float - length of all items together along the scroll axis */
+  public abstract float getContentLength();
+
+  /** @return float - offset of the item with the given index along the scroll axis */
+  public abstract float getItemOffset(int index);
+
+  // binding // // // // //
+
+  /**
+   * Binds the items within the viewport (plus overscan) and unbinds the others; called automatically
+   * when the content node moves or this node resizes.
+   */
+  public void refresh(){
+    // binding or layout might move or resize nodes
+    if(bRefreshing)
+      return;
+
+    bRefreshing = true;
+
+    try {
+      refreshBoundItems();
+      updateContentSize();
+    } finally {
+      bRefreshing = false;
+    }
+  }
+
+  private void refreshBoundItems(){
+    float viewportStart = getScrollOffset() - overscan;
+    float viewportEnd = viewportStart + getViewportLength() + overscan * 2.0f;
+    int first = 0, last = -1;
+
+    if(itemCount > 0 && viewportEnd > viewportStart){
+      first = getFirstItemIndexAt(viewportStart);
+      last = getLastItemIndexAt(viewportEnd);
+
+      if(!isWrapping()){
+        first = Math.max(0, first);
+        last = Math.min(itemCount - 1, last);
+      }
+    }
+
+    int oldFirst = firstBoundIndex;
+
+    // when wrapping, items i and i+itemCount are the same item; keep the bound nodes when scrolled by whole cycles
+    if(isWrapping() && itemCount > 0)
+      oldFirst += itemCount * Math.round((first - oldFirst) / (float)itemCount);
+
+    int oldLast = oldFirst + boundNodes.size() - 1;
+
+    // unbind items that left the viewport
+    for(int i=0; i<boundNodes.size(); i++){
+      int index = oldFirst + i;
+      if(index < first || index > last)
+        unbindNode(boundNodes.get(i), index);
+    }
+
+    ArrayList<T> nodes = nextBoundNodes;
+    nodes.clear();
+
+    for(int index=first; index<=last; index++)
+      nodes.add(index >= oldFirst && index <= oldLast ? boundNodes.get(index - oldFirst) : bindNode(index));
+
+    nextBoundNodes = boundNodes;
+    nextBoundNodes.clear();
+    boundNodes = nodes;
+    firstBoundIndex = first;
+
+    layoutItems(boundNodes, firstBoundIndex);
+  }
+
+  private T bindNode(int index){
+    T node = spareNodes.poll();
+
+    if(node == null){
+      node = itemFactory.get();
+      createdItemNodeCount++;
+    }
+
+    contentNode.addChild(node);
+    itemBinder.bind(node, getDataIndex(index));
+    return node;
+  }
+
+  private void unbindNode(T node, int index){
+    itemBinder.unbind(node, getDataIndex(index));
+    contentNode.removeChild(node);
+    spareNodes.add(node);
+  }
+
+  /** Unbinds all bound items and binds them again; use this when the data of the items changed */
+  public void rebindItems(){
+    for(int i=0; i<boundNodes.size(); i++)
+      unbindNode(boundNodes.get(i), firstBoundIndex + i);
+
+    boundNodes.clear();
+    refresh();
+  }
+
+  /** Binds the item with the given index again (if it's bound); use this when the data of that item changed */
+  public void rebindItem(int index){
+    boolean found = false;
+
+    // when wrapping, an item can be bound to multiple nodes
+    for(int i=0; i<boundNodes.size(); i++){
+      if(getDataIndex(firstBoundIndex + i) != index)
+        continue;
+
+      T node = boundNodes.get(i);
+      itemBinder.unbind(node, index);
+      itemBinder.bind(node, index);
+      found = true;
+    }
+
+    if(found)
+      refresh();
+  }
+
+  /** @return T - the (first) node that's bound to the item with the given index, null if that item isn't bound */
+  public T getItemNode(int index){
+    if(isWrapping()){
+      for(int i=0; i<boundNodes.size(); i++)
+        if(getDataIndex(firstBoundIndex + i) == index)
+          return boundNodes.get(i);
+
+      return null;
+    }
+
+    int i = index - firstBoundIndex;
+    return i >= 0 && i < boundNodes.size() ? boundNodes.get(i) : null;
+  }
+
+  /** @return int - position of the first bound item; when wrapping, this can be outside of the item range (see getDataIndex) */
+  public int getFirstBoundIndex(){
+    return firstBoundIndex;
+  }
+
+  /** @return int - number of bound items (the items within the viewport plus overscan) */
+  public int getBoundItemCount(){
+    return boundNodes.size();
+  }
+
+  /** @return int - number of item nodes created by this container (bound and unbound) */
+  public int getItemNodeCount(){
+    return createdItemNodeCount;
+  }
+
+  // configuration // // // // //
+
+  public int getItemCount(){
+    return itemCount;
+  }
+
+  /** Sets the number of items; bound items that remain in range stay bound (see rebindItems) */
+  public VirtualContainerNode<T> setItemCount(int count){
+    itemCount = Math.max(0, count);
+    onItemCountChange();
+    refresh();
+    return this;
+  }
+
+  /** Called when the item count changes, before refreshing */
+  protected void onItemCountChange(){}
+
+  /** @return boolean - true when the items repeat endlessly in both directions (see VirtualListNode.setWrapping) */
+  public boolean isWrapping(){
+    return false;
+  }
+
+  /** @return int - the index of the item at the given position; positions only differ from item indices when wrapping */
+  public int getDataIndex(int position){
+    return isWrapping() && itemCount > 0 ? Math.floorMod(position, itemCount) : position;
+  }
+
+  public float getOverscan(){
+    return overscan;
+  }
+
+  /** @param distance Length (in pixels) beyond both ends of the viewport within which items are bound as well */
+  public VirtualContainerNode<T> setOverscan(float distance){
+    overscan = Math.max(0.0f, distance);
+    refresh();
+    return this;
+  }
+
+  public boolean isHorizontal(){
+    return bHorizontal;
+  }
+
+  /** @param horizontal When true, items are laid out (and scrolled) along the x-axis instead of the y-axis */
+  public VirtualContainerNode<T> setHorizontal(boolean horizontal){
+    if(bHorizontal != horizontal){
+      // keep the scroll offset, along the new axis
+      float offset = getScrollOffset();
+      bRefreshing = true;
+      contentNode.setPosition(0.0f, 0.0f);
+      bRefreshing = false;
+      bHorizontal = horizontal;
+      scrollLimitsContentLength = -1.0f;
+      setScrollOffset(offset);
+      refresh();
+    }
+
+    return this;
+  }
+
+  /** @return Node - the (scrolled) node that has the bound item nodes as children */
+  public Node getContentNode(){
+    return contentNode;
+  }
+
+  // scrolling // // // // //
+
+  /** @return float - the length of this node along the scroll axis */
+  public float getViewportLength(){
+    return bHorizontal ? getWidth() : getHeight();
+  }
+
+  /** @return float - the length of this node across the scroll axis */
+  public float getViewportBreadth(){
+    return bHorizontal ? getHeight() : getWidth();
+  }
+
+  /** @return float - the distance the content is scrolled along the scroll axis */
+  public float getScrollOffset(){
+    return -(bHorizontal ? contentNode.getX() : contentNode.getY());
+  }
+
+  /** Moves the content node to the given scroll offset (without smoothing, see enableSwiper) */
+  public VirtualContainerNode<T> setScrollOffset(float offset){
+    if(bHorizontal)
+      contentNode.setX(-offset);
+    else
+      contentNode.setY(-offset);
+
+    return this;
+  }
+
+  /**
+   * Enables a Swiper on this node which scrolls the content node (without snapping),
+   * with offset limits that are kept up-to-date with the content length.
+   * @return Swiper - the Swiper instance, which can be configured further
+   */
+  public Swiper enableSwiper(){
+    if(swiper == null){
+      // the Swiper's offset limits are relative to the content's position when it's enabled
+      PVector pos = contentNode.getPosition();
+      bRefreshing = true;
+      contentNode.setPosition(0.0f, 0.0f);
+      swiper = Swiper.enableFor(this, contentNode);
+      contentNode.setPosition(pos);
+      bRefreshing = false;
+
+      swiper.setSnapEnabled(false);
+      scrollLimitsContentLength = -1.0f;
+      updateContentSize();
+    }
+
+    return swiper;
+  }
+
+  private void updateContentSize(){
+    float contentLength = getContentLength();
+    float viewportLength = getViewportLength();
+
+    if(bHorizontal)
+      contentNode.setSize(contentLength, getHeight());
+    else
+      contentNode.setSize(getWidth(), contentLength);
+
+    if(swiper == null || (contentLength == scrollLimitsContentLength && viewportLength == scrollLimitsViewportLength
+      && isWrapping() == bScrollLimitsWrapping))
+      return;
+
+    scrollLimitsContentLength = contentLength;
+    scrollLimitsViewportLength = viewportLength;
+    bScrollLimitsWrapping = isWrapping();
+
+    if(isWrapping())
+      swiper.setWrapLength(bHorizontal ? contentLength : 0.0f, bHorizontal ? 0.0f : contentLength);
+    else
+      swiper.setWrapLength(null);
+
+    float limit = -Math.max(0.0f, contentLength - viewportLength);
+    swiper.setMaxOffset(new PVector(0.0f, 0.0f, 0.0f));
+    swiper.setMinOffset(bHorizontal ? new PVector(limit, 0.0f, 0.0f) : new PVector(0.0f, limit, 0.0f));
+  }
+}
@@ -0,0 +1,105 @@
+package com.fuse.ui;
+
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Virtualized grid (see VirtualContainerNode) of equally sized cells; items fill the grid line by line
+ * (rows when scrolling vertically, columns when scrolling horizontally).
+ * By default the number of cells per line is the number of cells that fit in the viewport's breadth.
+ */
+public class VirtualGridNode<T extends Node> extends VirtualContainerNode<T> {
+
+  private float cellWidth = 100.0f, cellHeight = 100.0f;
+  /** Number of cells per line, zero to fit as many cells as possible */
+  private int lineCellCount = 0;
+
+  public VirtualGridNode(Supplier<T> itemFactory, ItemBinder<T> itemBinder){
+    super(itemFactory, itemBinder);
+  }
+
+  // configuration // // // // //
+
+  public VirtualGridNode<T> setCellSize(float width, float height){
+    cellWidth = Math.max(1.0f, width);
+    cellHeight = Math.max(1.0f, height);
+    refresh();
+    return this;
+  }
+
+  public float getCellWidth(){
+    return cellWidth;
+  }
+
+  public float getCellHeight(){
+    return cellHeight;
+  }
+
+  /** @param count Number of cells per line; zero (default) fits as many cells as possible in the viewport's breadth */
+  public VirtualGridNode<T> setLineCellCount(int count){
+    lineCellCount = Math.max(0, count);
+    refresh();
+    return this;
+  }
+
+  /** @return int - the actual number of cells per line */
+  public int getLineCellCount(){
+    if(lineCellCount > 0)
+      return lineCellCount;
+
+    return Math.max(1, (int)(getViewportBreadth() / getCellBreadth()));
+  }
+
+  private float getCellLength(){
+    return isHorizontal() ? cellWidth : cellHeight;
+  }
+
+  private float getCellBreadth(){
+    return isHorizontal() ? cellHeight : cellWidth;
+  }
+
+  // layout // // // // //
+
+  @Override public float getContentLength(){
+    int lineCount = (getItemCount() + getLineCellCount() - 1) / getLineCellCount();
+    return lineCount * getCellLength();
+  }
+
+  @Override public float getItemOffset(int index){
+    return (index / getLineCellCount()) * getCellLength();
+  }
+
+  @Override protected int getFirstItemIndexAt(float offset){
+    if(offset <= 0.0f)
+      return 0;
+
+    return (int)(offset / getCellLength()) * getLineCellCount();
+  }
+
+  @Override protected int getLastItemIndexAt(float offset){
+    if(offset <= 0.0f)
+      return getLineCellCount() - 1;
+
+    return ((int)(offset / getCellLength()) + 1) * getLineCellCount() - 1;
+  }
+
+  @Override protected void layoutItems(ArrayList<T> nodes, int firstIndex){
+    int lineCells = getLineCellCount();
+    float cellLength = getCellLength(), cellBreadth = getCellBreadth();
+    boolean horizontal = isHorizontal();
+
+    for(int i=0; i<nodes.size(); i++){
+      T node = nodes.get(i);
+      int index = firstIndex + i;
+      float along = (index / lineCells) * cellLength;
+      float across = (index % lineCells) * cellBreadth;
+
+      if(horizontal)
+        node.setPosition(along, across);
+      else
+        node.setPosition(across, along);
+
+      node.setSize(cellWidth, cellHeight);
+    }
+  }
+}
@@ -0,0 +1,229 @@
+package com.fuse.ui;
+
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Virtualized list (see VirtualContainerNode); items are laid out in a single row or column,
+ * each item gets the full breadth of the viewport.
+ *
+ * All items have the same (fixed) length, unless measuring is enabled (see setMeasureItems);
+ * then the length of each bound item node is measured, while unmeasured items are assumed to have the fixed length.
+ */
+public class VirtualListNode<T extends Node> extends VirtualContainerNode<T> {
+
+  private float itemLength = 100.0f;
+  private boolean bMeasureItems = false;
+  private boolean bWrap = false;
+  /** Measured length minus itemLength, per item (only when measuring) */
+  private float[] lengthDeltas = null;
+  /** Fenwick tree over lengthDeltas, for finding offsets and items at offsets in logarithmic time */
+  private double[] deltaTree = null;
+
+  public VirtualListNode(Supplier<T> itemFactory, ItemBinder<T> itemBinder){
+    super(itemFactory, itemBinder);
+  }
+
+  // configuration // // // // //
+
+  public float getItemLength(){
+    return itemLength;
+  }
+
+  /** @param length Length of every item along the scroll axis, or the estimated length of unmeasured items (see setMeasureItems) */
+  public VirtualListNode<T> setItemLength(float length){
+    itemLength = Math.max(1.0f, length);
+    resetMeasurements();
+    refresh();
+    return this;
+  }
+
+  public boolean isMeasuringItems(){
+    return bMeasureItems;
+  }
+
+  /** @param measure When true, the length of the item nodes (their size along the scroll axis) is used once they're bound */
+  public VirtualListNode<T> setMeasureItems(boolean measure){
+    bMeasureItems = measure;
+    resetMeasurements();
+    refresh();
+    return this;
+  }
+
+  /** @return float - the (measured or fixed) length of the item with the given index */
+  public float getItemLength(int index){
+    index = getDataIndex(index);
+    return lengthDeltas == null || index < 0 || index >= lengthDeltas.length ? itemLength : itemLength + lengthDeltas[index];
+  }
+
+  @Override public boolean isWrapping(){
+    return bWrap;
+  }
+
+  /**
+   * Makes the items repeat endlessly in both directions (an endless carousel); the bound item nodes form a ring that
+   * is repositioned and rebound while scrolling. With enableSwiper, the Swiper wraps around the content length
+   * (see Swiper.setWrapLength); with a snap interval of the item length, its step positions are the item indices.
+   */
+  public VirtualListNode<T> setWrapping(boolean wrap){
+    bWrap = wrap;
+    refresh();
+    return this;
+  }
+
+  // layout // // // // //
+
+  @Override public float getContentLength(){
+    return offsetOf(getItemCount());
+  }
+
+  @Override public float getItemOffset(int index){
+    int count = getItemCount();
+
+    if(bWrap && count > 0 && (index < 0 || index >= count))
+      return Math.floorDiv(index, count) * getContentLength() + offsetOf(Math.floorMod(index, count));
+
+    return offsetOf(index);
+  }
+
+  /** @return float - the offset of the item with the given index, without wrapping */
+  private float offsetOf(int index){
+    return itemLength * index + (float)deltaSum(index);
+  }
+
+  @Override protected int getFirstItemIndexAt(float offset){
+    return getItemIndexAt(offset);
+  }
+
+  @Override protected int getLastItemIndexAt(float offset){
+    return getItemIndexAt(offset);
+  }
+
+  /**
+   * @return int - the index of the item at the given offset along the scroll axis (not clamped to the item count);
+   * when wrapping, this is a position in the endless repetition of items (see getDataIndex)
+   */
+  public int getItemIndexAt(float offset){
+    float contentLength = getContentLength();
+
+    if(bWrap && contentLength > 0.0f && (offset < 0.0f || offset >= contentLength)){
+      int cycles = (int)Math.floor(offset / contentLength);
+      int index = indexAt(offset - cycles * contentLength);
+      return cycles * getItemCount() + Math.min(index, getItemCount() - 1);
+    }
+
+    return indexAt(offset);
+  }
+
+  private int indexAt(float offset){
+    if(offset <= 0.0f)
+      return 0;
+
+    if(deltaTree == null)
+      return (int)(offset / itemLength);
+
+    // binary lifting; finds the number of items that start at or before the offset
+    int n = deltaTree.length - 1;
+    int pos = 0;
+    double remaining = offset;
+
+    for(int step = Integer.highestOneBit(Math.max(1, n)); step > 0; step >>= 1){
+      int next = pos + step;
+      if(next > n)
+        continue;
+
+      double length = (double)itemLength * step + deltaTree[next];
+      if(length <= remaining){
+        pos = next;
+        remaining -= length;
+      }
+    }
+
+    return pos;
+  }
+
+  @Override protected void layoutItems(ArrayList<T> nodes, int firstIndex){
+    float offset = getItemOffset(firstIndex);
+    boolean horizontal = isHorizontal();
+    float breadth = getViewportBreadth();
+
+    for(int i=0; i<nodes.size(); i++){
+      T node = nodes.get(i);
+      int index = firstIndex + i;
+
+      if(horizontal)
+        node.setPosition(offset, 0.0f);
+      else
+        node.setPosition(0.0f, offset);
+
+      if(bMeasureItems){
+        setMeasuredLength(getDataIndex(index), horizontal ? node.getWidth() : node.getHeight());
+      } else if(horizontal){
+        node.setSize(itemLength, breadth);
+      } else {
+        node.setSize(breadth, itemLength);
+      }
+
+      offset += getItemLength(index);
+    }
+  }
+
+  @Override protected void onItemCountChange(){
+    if(lengthDeltas == null || lengthDeltas.length == getItemCount())
+      return;
+
+    // keep the measurements of the remaining items
+    float[] deltas = new float[getItemCount()];
+    System.arraycopy(lengthDeltas, 0, deltas, 0, Math.min(deltas.length, lengthDeltas.length));
+    lengthDeltas = deltas;
+    deltaTree = new double[deltas.length + 1];
+
+    // linear-time Fenwick tree construction
+    for(int i=1; i<deltaTree.length; i++){
+      deltaTree[i] += deltas[i-1];
+      int parent = i + (i & -i);
+      if(parent < deltaTree.length)
+        deltaTree[parent] += deltaTree[i];
+    }
+  }
+
+  // measurements // // // // //
+
+  private void resetMeasurements(){
+    if(bMeasureItems){
+      lengthDeltas = new float[getItemCount()];
+      deltaTree = new double[getItemCount() + 1];
+    } else {
+      lengthDeltas = null;
+      deltaTree = null;
+    }
+  }
+
+  private void setMeasuredLength(int index, float length){
+    if(lengthDeltas == null || index < 0 || index >= lengthDeltas.length)
+      return;
+
+    float delta = Math.max(0.0f, length) - itemLength;
+    float change = delta - lengthDeltas[index];
+    if(change == 0.0f)
+      return;
+
+    lengthDeltas[index] = delta;
+
+    for(int i=index+1; i<deltaTree.length; i += i & -i)
+      deltaTree[i] += change;
+  }
+
+  /** @return double - sum of the length deltas of the first count items */
+  private double deltaSum(int count){
+    if(deltaTree == null)
+      return 0.0;
+
+    double sum = 0.0;
+
+    for(int i=Math.min(count, deltaTree.length - 1); i > 0; i -= i & -i)
+      sum += deltaTree[i];
+
+    return sum;
+  }
+}
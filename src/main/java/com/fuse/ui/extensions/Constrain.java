@@ -17,6 +17,15 @@ public class Constrain extends TransformerExtension {
   private boolean bFillParent = false;
   private boolean bCenterWhenFitting = false;
   private boolean bLock = false;
+  /** True when the last check found the node outside of its constrains (see canSleep) */
+  private boolean bViolated = false;
+  /** The parent whose size changes are watched (for fill-parent and center-when-fitting) */
+  private Node watchedParent = null;
+  // reusable vectors for (allocation-free) constrain calculations
+  private PVector constrainedScaleVec = new PVector();
+  private PVector constrainedPositionVec = new PVector();
+  private PVector targetScaleVec = new PVector();
+  private PVector sizeVec = new PVector();
 
   public Constrain(){
     super();
@@ -27,6 +36,10 @@ public class Constrain extends TransformerExtension {
   @Override protected void setup(){
     node.positionChangeEvent.whenTriggered(() -> { this.applyConstrains(); }, this);
     node.sizeChangeEvent.whenTriggered(() -> { this.applyConstrains(); }, this);
+    // the other things that constrains depend on; only need checking in the next update
+    node.scaleChangeEvent.whenTriggered(this::wake, this);
+    node.newParentEvent.whenTriggered(this::watchParent, this);
+    watchParent();
     //node.touchMoveEvent.whenTriggered(()->{ this.onNodeChange(); }, this);
     //node.touchUpEvent.whenTriggered(()->{ this.onNodeChange(); }, this);
   }
@@ -34,6 +47,13 @@ public class Constrain extends TransformerExtension {
   @Override protected void teardown(){
     node.positionChangeEvent.stopWhenTriggeredCallbacks(this);
     node.sizeChangeEvent.stopWhenTriggeredCallbacks(this);
+    node.scaleChangeEvent.stopWhenTriggeredCallbacks(this);
+    node.newParentEvent.stopWhenTriggeredCallbacks(this);
+
+    if(watchedParent != null){
+      watchedParent.sizeChangeEvent.stopWhenTriggeredCallbacks(this);
+      watchedParent = null;
+    }
     //node.touchMoveEvent.stopWhenTriggeredCallbacks(this);
     //node.touchUpEvent.stopWhenTriggeredCallbacks(this);
   }
@@ -44,6 +64,23 @@ public class Constrain extends TransformerExtension {
     super.update(dt);
   }
 
+  /** Sleeps when the node is within its constrains and there are no pending transformations */
+  @Override public boolean canSleep(){
+    return !bViolated && super.canSleep();
+  }
+
+  private void watchParent(){
+    if(watchedParent != null)
+      watchedParent.sizeChangeEvent.stopWhenTriggeredCallbacks(this);
+
+    watchedParent = node.getParent();
+
+    if(watchedParent != null)
+      watchedParent.sizeChangeEvent.whenTriggered(this::wake, this);
+
+    this.wake();
+  }
+
   @Override public void transformPosition(PVector vec){
     //bLock = true;
     super.transformPosition(vec);
@@ -62,30 +99,18 @@ public class Constrain extends TransformerExtension {
     bLock = false;
   }
 
-  private PVector getConstrainedPosition(){
-    PVector result = node.getPosition();
-    PVector targetScale = this.getTargetScale();
+  private PVector getConstrainedPosition(PVector result){
+    node.getPosition(result);
+    node.getSize(sizeVec);
+    PVector targetScale = this.getTargetScale(targetScaleVec);
 
     // currently aplying scale constrain? then we'll probably want to apply
     // translation so scaling doesn't warp to top left
     if(targetScale != null){
-      PVector curSize = this.node.getSize();
-      PVector curscale = this.node.getScale();
-      curSize.x = curSize.x * curscale.x;
-      curSize.y = curSize.y * curscale.y;
-      curSize.z = curSize.z * curscale.z;
-
-      PVector targetSize = this.node.getSize();
-      targetSize.x = targetSize.x * targetScale.x;
-      targetSize.y = targetSize.y * targetScale.y;
-      targetSize.z = targetSize.z * targetScale.z;
-
-      PVector deltaSize = targetSize.get();
-      deltaSize.sub(curSize);
-
-      // apply position correction to constrainedPosition result
-      deltaSize.mult(0.5f);
-      result.sub(deltaSize);
+      // apply position correction (half the size delta) to constrainedPosition result
+      result.x -= (sizeVec.x * targetScale.x - sizeVec.x * node.getScaleX()) * 0.5f;
+      result.y -= (sizeVec.y * targetScale.y - sizeVec.y * node.getScaleY()) * 0.5f;
+      result.z -= (sizeVec.z * targetScale.z - sizeVec.z * node.getScaleZ()) * 0.5f;
     }
 
     if(axisMinValues[0] != null && axisMinValues[0] > result.x) result.x = axisMinValues[0];
@@ -100,18 +125,15 @@ public class Constrain extends TransformerExtension {
       Node parentNode = node.getParent();
       if(parentNode != null){
         //PVector sizeScaled = node.getSizeScaled();
-        PVector sizeScaled = node.getSize();
-        PVector scaler = (targetScale != null ? targetScale : this.node.getScale());
-        sizeScaled.x = sizeScaled.x * scaler.x;
-        sizeScaled.y = sizeScaled.y * scaler.y;
-        sizeScaled.z = sizeScaled.z * scaler.z;
-
-        if(sizeScaled.x >= parentNode.getSize().x){ // can only fill if bigger
-          result.x = Math.min(0.0f, Math.max((parentNode.getSize().x-sizeScaled.x), result.x));
+        float scaledWidth = sizeVec.x * (targetScale != null ? targetScale.x : node.getScaleX());
+        float scaledHeight = sizeVec.y * (targetScale != null ? targetScale.y : node.getScaleY());
+
+        if(scaledWidth >= parentNode.getWidth()){ // can only fill if bigger
+          result.x = Math.min(0.0f, Math.max((parentNode.getWidth()-scaledWidth), result.x));
         }
 
-        if(sizeScaled.y >= parentNode.getSize().y){
-          result.y = Math.min(0.0f, Math.max((parentNode.getSize().y-sizeScaled.y), result.y));
+        if(scaledHeight >= parentNode.getHeight()){
+          result.y = Math.min(0.0f, Math.max((parentNode.getHeight()-scaledHeight), result.y));
         }
       }
     }
@@ -119,19 +141,16 @@ public class Constrain extends TransformerExtension {
     if(bCenterWhenFitting){
       Node parentNode = node.getParent();
       if(parentNode != null){
-          //PVector sizeScaled = node.getSizeScaled();
-      	PVector sizeScaled = node.getSize();
-      	PVector scaler = (targetScale != null ? targetScale : this.node.getScale());
-      	sizeScaled.x = sizeScaled.x * scaler.x;
-      	sizeScaled.y = sizeScaled.y * scaler.y;
-      	sizeScaled.z = sizeScaled.z * scaler.z;
-
-        if(sizeScaled.x <= parentNode.getSize().x){
-          result.x = (parentNode.getSize().x - sizeScaled.x) * 0.5f;
+        //PVector sizeScaled = node.getSizeScaled();
+        float scaledWidth = sizeVec.x * (targetScale != null ? targetScale.x : node.getScaleX());
+        float scaledHeight = sizeVec.y * (targetScale != null ? targetScale.y : node.getScaleY());
+
+        if(scaledWidth <= parentNode.getWidth()){
+          result.x = (parentNode.getWidth() - scaledWidth) * 0.5f;
         }
 
-        if(sizeScaled.y <= parentNode.getSize().y){
-          result.y = (parentNode.getSize().y - sizeScaled.y) * 0.5f;
+        if(scaledHeight <= parentNode.getHeight()){
+          result.y = (parentNode.getHeight() - scaledHeight) * 0.5f;
         }
       }
     }
@@ -139,8 +158,8 @@ public class Constrain extends TransformerExtension {
     return result;
   }
 
-  private PVector getConstrainedScale(){
-    PVector result = node.getScale().get();
+  private PVector getConstrainedScale(PVector result){
+    node.getScale(result);
 
     if(minScale[0] != null && minScale[0] > result.x) result.x = minScale[0];
     if(minScale[1] != null && minScale[1] > result.y) result.y = minScale[1];
@@ -157,24 +176,44 @@ public class Constrain extends TransformerExtension {
     if(bLock)
       return;
 
-    PVector vec = this.getConstrainedScale();
-    if(vec.dist(node.getScale()) > scaleIgnoreLimit){
-      super.transformScale(vec);
-    }
+    bViolated = false;
+
+    // correcting both scale and position triggers a single transformationEvent
+    Node.beginBatch();
+
+    try {
+      PVector vec = this.getConstrainedScale(constrainedScaleVec);
+      if(dist(vec, node.getScaleX(), node.getScaleY(), node.getScaleZ()) > scaleIgnoreLimit){
+        bViolated = true;
+        super.transformScale(vec);
+      }
 
-    vec = this.getConstrainedPosition();
-    if(vec.dist(node.getPosition()) > positionIgnoreLimit){
-      super.transformPosition(vec);
+      vec = this.getConstrainedPosition(constrainedPositionVec);
+      if(dist(vec, node.getX(), node.getY(), node.getZ()) > positionIgnoreLimit){
+        bViolated = true;
+        super.transformPosition(vec);
+      }
+    } finally {
+      Node.commitBatch();
     }
 
+    // transformations can be refused (while touched), so keep checking
+    if(bViolated)
+      this.wake();
+
     // TODO: rotation constrains
   }
 
+  private static float dist(PVector vec, float x, float y, float z){
+    float dx = vec.x - x, dy = vec.y - y, dz = vec.z - z;
+    return (float)Math.sqrt(dx*dx + dy*dy + dz*dz);
+  }
+
   public void setFixX(){ setFixX(true); }
   public void setFixX(boolean enable){
     if(enable && node != null){
-      setMinX(node.getPosition().x);
-      setMaxX(node.getPosition().x);
+      setMinX(node.getX());
+      setMaxX(node.getX());
     }else{
       setMinX(null);
       setMaxX(null);
@@ -184,8 +223,8 @@ public class Constrain extends TransformerExtension {
   public void setFixY(){ setFixY(true); }
   public void setFixY(boolean enable){
     if(enable && node != null){
-      setMinY(node.getPosition().y);
-      setMaxY(node.getPosition().y);
+      setMinY(node.getY());
+      setMaxY(node.getY());
     } else {
       setMinY(null);
       setMaxY(null);
@@ -195,27 +234,28 @@ public class Constrain extends TransformerExtension {
   public void setFixZ(){ setFixZ(true); }
   public void setFixZ(boolean enable){
     if(enable && node != null){
-      setMinZ(node.getPosition().z);
-      setMaxZ(node.getPosition().z);
+      setMinZ(node.getZ());
+      setMaxZ(node.getZ());
     } else {
       setMinZ(null);
       setMaxZ(null);
     }
   }
 
-  public void setMinX(Float min){ axisMinValues[0] = min; if(min != null && node.getPosition().x < min) applyConstrains(); }
-  public void setMinY(Float min){ axisMinValues[1] = min; if(min != null && node.getPosition().y < min) applyConstrains(); }
-  public void setMinZ(Float min){ axisMinValues[2] = min; if(min != null && node.getPosition().z < min) applyConstrains(); }
+  public void setMinX(Float min){ axisMinValues[0] = min; if(min != null && node.getX() < min) applyConstrains(); }
+  public void setMinY(Float min){ axisMinValues[1] = min; if(min != null && node.getY() < min) applyConstrains(); }
+  public void setMinZ(Float min){ axisMinValues[2] = min; if(min != null && node.getZ() < min) applyConstrains(); }
 
-  public void setMaxX(Float max){ axisMaxValues[0] = max; if(max != null && node.getPosition().x > max) applyConstrains(); }
-  public void setMaxY(Float max){ axisMaxValues[1] = max; if(max != null && node.getPosition().y > max) applyConstrains(); }
-  public void setMaxZ(Float max){ axisMaxValues[2] = max; if(max != null && node.getPosition().z > max) applyConstrains(); }
+  public void setMaxX(Float max){ axisMaxValues[0] = max; if(max != null && node.getX() > max) applyConstrains(); }
+  public void setMaxY(Float max){ axisMaxValues[1] = max; if(max != null && node.getY() > max) applyConstrains(); }
+  public void setMaxZ(Float max){ axisMaxValues[2] = max; if(max != null && node.getZ() > max) applyConstrains(); }
 
   @Override
   public void setMinScale(Float value){
     this.minScale[0] = value;
     this.minScale[1] = value;
     this.minScale[2] = value;
+    this.wake();
   }
 
   @Override
@@ -223,6 +263,7 @@ public class Constrain extends TransformerExtension {
     this.maxScale[0] = value;
     this.maxScale[1] = value;
     this.maxScale[2] = value;
+    this.wake();
   }
 
   public Float getPercentageX(){
@@ -232,7 +273,7 @@ public class Constrain extends TransformerExtension {
     if(axisMinValues[0].equals(axisMaxValues[0]))
       return 1.0f;
 
-    return PApplet.map(node.getPosition().x, axisMinValues[0], axisMaxValues[0], 0.0f, 1.0f);
+    return PApplet.map(node.getX(), axisMinValues[0], axisMaxValues[0], 0.0f, 1.0f);
   }
 
   public Float getPercentageY(){
@@ -242,7 +283,7 @@ public class Constrain extends TransformerExtension {
     if(axisMinValues[1].equals(axisMaxValues[1]))
       return 1.0f;
 
-    return PApplet.map(node.getPosition().y, axisMinValues[1], axisMaxValues[1], 0.0f, 1.0f);
+    return PApplet.map(node.getY(), axisMinValues[1], axisMaxValues[1], 0.0f, 1.0f);
   }
 
   public Float getPercentageZ(){
@@ -252,7 +293,7 @@ public class Constrain extends TransformerExtension {
     if(axisMinValues[2].equals(axisMaxValues[2]))
       return 1.0f;
 
-    return PApplet.map(node.getPosition().z, axisMinValues[2], axisMaxValues[2], 0.0f, 1.0f);
+    return PApplet.map(node.getZ(), axisMinValues[2], axisMaxValues[2], 0.0f, 1.0f);
   }
 
   @Override
@@ -263,6 +304,7 @@ public class Constrain extends TransformerExtension {
 
   public void setCenterWhenFitting(boolean enable){
     bCenterWhenFitting = enable;
+    this.wake();
   }
 
   public boolean getCenterWhenFitting(){
@@ -14,6 +14,9 @@ public class Draggable extends TransformerExtension {
   private boolean bDragging = false;
   private boolean bAbortOnSecondTouch = true;
   private TouchEvent dragEvent = null;
+  // reusable vectors for (allocation-free) drag updates
+  private PVector dragOffsetVec = new PVector();
+  private PVector dragPositionVec = new PVector();
   // configurables
   private boolean bRestore = false;
 
@@ -74,8 +77,8 @@ public class Draggable extends TransformerExtension {
 
   @Override public void update(float dt){
     if(bDragging && this.dragEvent != null){
-      if(this.node.getActiveTouchEvents().size() == 1){
-        apply(this.dragEvent.offset());
+      if(this.node.getActiveTouchEventCount() == 1){
+        apply(this.dragEvent.offset(dragOffsetVec));
       }
 
       if(this.dragEvent.isFinished()){
@@ -86,12 +89,17 @@ public class Draggable extends TransformerExtension {
     super.update(dt);
   }
 
+  @Override public boolean canSleep(){
+    return !bDragging && super.canSleep();
+  }
+
   private void start(TouchEvent event){
 	  if(event == null) return;
       originalNodePosition = this.node.getPosition();
       originalNodePositionGlobal = this.node.getGlobalPosition();
       dragEvent = event;
       bDragging = true;
+      this.wake();
       //logger.info("START DRAGGING");
       startEvent.trigger(this);
   }
@@ -142,7 +150,8 @@ public class Draggable extends TransformerExtension {
     if(originalNodePositionGlobal == null) // should  be set at first touch
     	return;
 
-    PVector globPos = globalDragOffset.get();
+    PVector globPos = dragPositionVec;
+    globPos.set(globalDragOffset);
     globPos.add(originalNodePositionGlobal);
     super.transformPositionGlobal(globPos);
   }
@@ -7,6 +7,8 @@ import com.fuse.ui.Node;
 public class ExtensionBase {
   protected Logger logger;
   protected Node node;
+  /** The node that updates this extension (see Node.addExtension); usually, but not necessarily, the same as node */
+  private Node hostNode = null;
   private boolean bEnabled;
 
   public ExtensionBase(){
@@ -33,6 +35,7 @@ public class ExtensionBase {
     if(!isEnabled()){
       this.bEnabled = true;
       this.setup();
+      this.wake();
     }
   }
 
@@ -47,6 +50,38 @@ public class ExtensionBase {
     // override this method extension-specific functionality
   }
 
+  /**
+   * Checked by the node after every update; when true, the node stops calling update
+   * until the extension is woken up again (see wake). By default extensions never sleep,
+   * extensions that override this must call wake whenever they get (per-frame) work to do.
+   * @return boolean - true when the extension has nothing to do in its update method
+   */
+  public boolean canSleep(){
+    return false;
+  }
+
+  /** Makes the host node resume calling update on this extension (see canSleep) */
+  public void wake(){
+    Node host = this.hostNode;
+    if(host != null)
+      host.wakeExtension(this);
+  }
+
+  /** @return boolean - true when the host node currently calls update on this extension every frame */
+  public boolean isAwake(){
+    Node host = this.hostNode;
+    return host != null && host.isExtensionAwake(this);
+  }
+
+  /** Called by Node.addExtension and Node.stopUsing */
+  public void setHostNode(Node newHostNode){
+    hostNode = newHostNode;
+  }
+
+  public Node getHostNode(){
+    return hostNode;
+  }
+
   public void drawDebug(){
     // override this method with extension-specific functionality
   }
@@ -58,17 +58,24 @@ public class GrowWithContent extends TransformerExtension {
 
     // TODO; calculate Node's bounding box to also consider rotational factors
 
-	  float fl = n.getRightScaled();
-	  if(fl > this.node.getSize().x) {
-      // use TransformerExtension's smoothing options (disabled by default)
-		  super.transformWidth(fl);
-	  }
-
-	  fl = n.getBottomScaled();
-	  if(fl > this.node.getSize().y) {
-      // use TransformerExtension's smoothing options (disabled by default)
-		  super.transformHeight(fl);
-	  }
+    // growing in both directions triggers a single size change
+    Node.beginBatch();
+
+    try {
+      float fl = n.getRightScaled();
+      if(fl > this.node.getSize().x) {
+        // use TransformerExtension's smoothing options (disabled by default)
+        super.transformWidth(fl);
+      }
+
+      fl = n.getBottomScaled();
+      if(fl > this.node.getSize().y) {
+        // use TransformerExtension's smoothing options (disabled by default)
+        super.transformHeight(fl);
+      }
+    } finally {
+      Node.commitBatch();
+    }
   }
 
   // static factory methods // // // // //
@@ -13,6 +13,9 @@ public class PinchZoom extends TransformerExtension {
   // attributes
   private PinchMath math = null;
   private PVector originalScale, originalPosition;
+  // reusable vectors for (allocation-free) pinch updates
+  private PVector pinchScaleVec = new PVector();
+  private PVector pinchPositionVec = new PVector();
   // configurables
   private boolean bRestore = false;
 
@@ -39,6 +42,10 @@ public class PinchZoom extends TransformerExtension {
       super.update(dt);
   }
 
+  @Override public boolean canSleep(){
+    return !isPinching() && super.canSleep();
+  }
+
   @Override protected void setup(){
     this.node.touchDownEvent.addListener((TouchEvent event) -> {
       if(!this.isPinching()){
@@ -71,6 +78,7 @@ public class PinchZoom extends TransformerExtension {
     this.math = new PinchMath(events);
     this.originalScale = this.node.getScale();
     this.originalPosition = this.node.getPosition();
+    this.wake();
     this.startPinchEvent.trigger(this.node);
   }
 
@@ -90,13 +98,14 @@ public class PinchZoom extends TransformerExtension {
     this.math.update();
 
     // SCALING
-    PVector scale = this.originalScale.get();
+    PVector scale = pinchScaleVec;
+    scale.set(this.originalScale);
     float pinchScale = this.math.getPinchScale();
     scale.mult(pinchScale);
 
     // TRANSLATE
     // current "dragged" position of the pinch-center
-    PVector p = math.getParentSpaceCurrentPinchCenter();
+    PVector p = math.getParentSpaceCurrentPinchCenter(pinchPositionVec);
     // offset of pinch-center to origin of pinched-node
     PVector offset = math.getLocalStartPinchCenter();
     // scale offset; have to multiply by pinchScale, because
@@ -236,8 +245,8 @@ class PinchMath {
 
   /** Really only resets some cache variable, but should still be called every update ;) */
   public void update(){
-    getGlobalCurrentPinchCenterCache = null;
-    getGlobalCurrentDeltaCache = null;
+    bGlobalCurrentPinchCenterCached = false;
+    bGlobalCurrentDeltaCached = false;
   }
 
   private PVector calcGlobalStartPinchCenter(){
@@ -253,23 +262,23 @@ class PinchMath {
   }
 
   public PVector getGlobalCurrentPinchCenter(){
-    if(getGlobalCurrentPinchCenterCache == null)
-      getGlobalCurrentPinchCenterCache = calcGlobalCurrentPinchCenter();
-    return getGlobalCurrentPinchCenterCache;
+    if(!bGlobalCurrentPinchCenterCached){
+      calcGlobalCurrentPinchCenter(globalCurrentPinchCenterCache);
+      bGlobalCurrentPinchCenterCached = true;
+    }
+
+    return globalCurrentPinchCenterCache;
   }
 
-  private PVector getGlobalCurrentPinchCenterCache = null;
+  private PVector globalCurrentPinchCenterCache = new PVector();
+  private boolean bGlobalCurrentPinchCenterCached = false;
 
-  private PVector calcGlobalCurrentPinchCenter(){
-    PVector p1 = events[0].position.get();
-    PVector p2 = events[1].position.get();
-    // delta
-    p2.sub(p1);
-    // half-delta
-    p2.mult(0.5f);
+  private PVector calcGlobalCurrentPinchCenter(PVector out){
+    PVector p1 = events[0].position;
+    PVector p2 = events[1].position;
     // center
-    p1.add(p2);
-    return p1;
+    out.set((p1.x + p2.x) * 0.5f, (p1.y + p2.y) * 0.5f, (p1.z + p2.z) * 0.5f);
+    return out;
   }
 
   public float getGlobalStartDelta(){
@@ -283,15 +292,17 @@ class PinchMath {
   private Float getGlobalStartDeltaCache = null;
 
   public float getGlobalCurrentDelta(){
-    if(getGlobalCurrentDeltaCache != null)
-      return getGlobalCurrentDeltaCache;
+    if(!bGlobalCurrentDeltaCached){
+      globalCurrentDeltaCache = events[0].position.dist(events[1].position);
+      bGlobalCurrentDeltaCached = true;
+    }
 
-    float result = events[0].position.dist(events[1].position);
-    getGlobalCurrentDeltaCache = result;
-    return result;
+    return globalCurrentDeltaCache;
   }
 
-  private Float getGlobalCurrentDeltaCache = null;
+  // primitive cache (instead of a Float), so it doesn't allocate every update
+  private float globalCurrentDeltaCache = 0.0f;
+  private boolean bGlobalCurrentDeltaCached = false;
 
   public float getPinchScale(){
     return this.getGlobalCurrentDelta() / this.getGlobalStartDelta();
@@ -306,8 +317,19 @@ class PinchMath {
   }
 
   public PVector getParentSpaceCurrentPinchCenter(){
+    return getParentSpaceCurrentPinchCenter(new PVector());
+  }
+
+  /** Allocation-free alternative to getParentSpaceCurrentPinchCenter() */
+  public PVector getParentSpaceCurrentPinchCenter(PVector out){
     PVector p = this.getGlobalCurrentPinchCenter();
     Node n = node.getParent();
-    return (n == null) ? p : n.toLocal(p);
+
+    if(n == null){
+      out.set(p);
+      return out;
+    }
+
+    return n.toLocal(p, out);
   }
 }
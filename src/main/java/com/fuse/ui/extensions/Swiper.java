@@ -19,11 +19,16 @@ public class Swiper extends TransformerExtension {
   private boolean bDragging = false;
   private PVector dragStartNodePositionGlobal = null;
   private TouchEvent draggingTouchEvent = null;
+  // reusable vectors for (allocation-free) drag updates
+  private PVector dragPositionVec = new PVector();
+  private PVector dragOffsetVec = new PVector();
+  private PVector dragLocalPositionVec = new PVector();
   // velocity / damping
   private boolean bDamping = false;
   private long minTouchDurationToDamp = 50l;
   private float maxDampVelocity = 1000.0f;
   private float dampThrowFactor = 1.0f;
+  private PVector dampVelocityVec = new PVector();
   // snapping (falling back into place)
   private boolean bSnapping = false;
   private PVector snapInterval = null; // size of a single "cell" in the snapping grid
@@ -35,6 +40,9 @@ public class Swiper extends TransformerExtension {
   private PVector maxOffset = null;
   private float offsetLimitSlack = 70.0f;  // how much beyond the offset limit can be scrolled
   private float offsetLimitSlackDistance = 700.0f; // how much beyond the scroll limit needs to be dragged to reach max slack
+  // wrap-around scrolling
+  private PVector wrapLength = null;
+  private PVector wrapPositionVec = new PVector();
 
   // events
   public Event<TouchEvent> startDraggingEvent = new Event<>();
@@ -100,6 +108,7 @@ public class Swiper extends TransformerExtension {
   @Override public void update(float dt){
     // progress all smoothed transformations
     super.update(dt);
+    this.applyWrapping();
 
     if(bDragging){
       this.updateDragging();
@@ -116,6 +125,10 @@ public class Swiper extends TransformerExtension {
     }
   }
 
+  @Override public boolean canSleep(){
+    return !bDragging && !bSnapping && !bDamping && snapPosFunc == null && super.canSleep();
+  }
+
   @Override public void drawDebug(){
     float deltaX = this.touchAreaNode.getSize().x * 0.1f;
     float deltaY = this.touchAreaNode.getSize().y * 0.1f;
@@ -198,6 +211,7 @@ public class Swiper extends TransformerExtension {
     this.dragStartNodePositionGlobal = scrollableNode.getGlobalPosition();
     this.draggingTouchEvent = event;
     bDragging = true;
+    this.wake();
     startDraggingEvent.trigger(event);
   }
 
@@ -239,21 +253,23 @@ public class Swiper extends TransformerExtension {
 
   /** should only be called when it is already verified that we're dragging (this.draggingTouchEvent can't be null) */
   private void updateDragging(){
-    PVector globPos = dragStartNodePositionGlobal.get();
-    globPos.add(this.draggingTouchEvent.offset());
+    PVector globPos = dragPositionVec;
+    globPos.set(dragStartNodePositionGlobal);
+    globPos.add(this.draggingTouchEvent.offset(dragOffsetVec));
     // use TransformationExtension's smoothing options
     super.transformPositionGlobal(globPos);
 
-    PVector localpos = this.getTargetPosition();
-    if(localpos == null) localpos = this.node.getPosition();
+    PVector localpos = this.getTargetPosition(dragLocalPositionVec);
+    if(localpos == null) localpos = this.node.getPosition(dragLocalPositionVec);
 
     // apply offset restrictins with slack
-    PVector offset = localpos.get();
+    PVector offset = dragOffsetVec;
+    offset.set(localpos);
     offset.sub(this.originalNodePosition);
     boolean needCorrection = false;
 
     if(this.minOffset != null){
-      if(offset.x < this.minOffset.x){
+      if(offset.x < this.minOffset.x && !isWrappingX()){
         float diff = offset.x - this.minOffset.x;
         float f = (float)Math.sin( Math.max(-1.0f, Math.min(0.0f, diff / this.offsetLimitSlackDistance)) * (float)Math.PI * 0.5f );
         localpos.x = this.minOffset.x + this.offsetLimitSlack * f;
@@ -261,7 +277,7 @@ public class Swiper extends TransformerExtension {
         needCorrection = true;
       }
 
-      if(offset.y < this.minOffset.y){
+      if(offset.y < this.minOffset.y && !isWrappingY()){
         float diff = offset.y - this.minOffset.y;
         float f = (float)Math.sin( Math.max(-1.0f, Math.min(0.0f, diff / this.offsetLimitSlackDistance)) * (float)Math.PI * 0.5f );
         localpos.y = this.minOffset.y + this.offsetLimitSlack * f;
@@ -271,7 +287,7 @@ public class Swiper extends TransformerExtension {
     }
 
     if(this.maxOffset != null){
-      if(offset.x > this.maxOffset.x) {
+      if(offset.x > this.maxOffset.x && !isWrappingX()) {
         float diff = offset.x - this.maxOffset.x;
         float f = (float)Math.sin( Math.max(0.0f, Math.min(1.0f, diff / this.offsetLimitSlackDistance)) * (float)Math.PI * 0.5f );
         localpos.x = this.maxOffset.x + this.offsetLimitSlack * f;
@@ -279,7 +295,7 @@ public class Swiper extends TransformerExtension {
         needCorrection = true;
       }
 
-      if(offset.y > this.maxOffset.y) {
+      if(offset.y > this.maxOffset.y && !isWrappingY()) {
         float diff = offset.y - this.maxOffset.y;
         float f = (float)Math.sin( Math.max(0.0f, Math.min(1.0f, diff / this.offsetLimitSlackDistance)) * (float)Math.PI * 0.5f );
         localpos.y = this.maxOffset.y + this.offsetLimitSlack * f;
@@ -315,11 +331,12 @@ public class Swiper extends TransformerExtension {
 
     super.transformPosition(velocity);
     this.bDamping = true;
+    this.wake();
   }
 
   private void updateDamping(float dt){
     if(super.isTransformingPosition()){
-      PVector vel = super.getPositionTransformationVelocity();
+      PVector vel = super.getPositionTransformationVelocity(dampVelocityVec);
       float mag = vel.mag();
 
       // start snap-back (if enabled) when velocity has dropped low enough
@@ -505,13 +522,15 @@ public class Swiper extends TransformerExtension {
     } else {
       this.transformPosition(correctedPos);
       this.bSnapping = true;
+      this.wake();
     }
 
-    // trigger notifications
-    snapPositionState.set(correctedPos);
-    newSnapPositionEvent.trigger(correctedPos);
+    // trigger notifications; when wrapping, these report the position within the wrap length
+    PVector reportedPos = this.toWrappedPosition(correctedPos);
+    snapPositionState.set(reportedPos);
+    newSnapPositionEvent.trigger(reportedPos);
 
-    PVector stepValue = this.toStepPosition(correctedPos);
+    PVector stepValue = this.toStepPosition(reportedPos);
     if(stepValue != null) {
       this.stepPositionState.set(stepValue);
       newStepPositionEvent.trigger(stepValue);
@@ -526,6 +545,7 @@ public class Swiper extends TransformerExtension {
    **/
   public void setSnapPosition(Supplier<PVector> snapPosFunc){
     this.snapPosFunc = snapPosFunc;
+    this.wake();
     this.doSnapPosition(snapPosFunc.get(), false);
   }
 
@@ -586,7 +606,7 @@ public class Swiper extends TransformerExtension {
   }
 
   public PVector getStepPosition(){
-    return this.toStepPosition(this.scrollableNode.getPosition());
+    return this.toStepPosition(this.toWrappedPosition(this.scrollableNode.getPosition()));
   }
 
   public void setStepPosition(float x, float y){
@@ -602,6 +622,9 @@ public class Swiper extends TransformerExtension {
   }
 
   public void setStepPosition(PVector pos, boolean instant){
+    if(this.wrapLength != null)
+      pos = this.toNearestWrappedStep(pos);
+
     pos = this.stepPositionToNodePosition(pos);
     pos = this.toClosestSnapPosition(pos);
     this.setSnapPosition(pos, instant);
@@ -706,24 +729,24 @@ public class Swiper extends TransformerExtension {
     boolean snap = false;
 
     if(minOffset!=null){
-      if(offset.x < minOffset.x){
+      if(offset.x < minOffset.x && !isWrappingX()){
         snapPos.x = minOffset.x;
         snap = true;
       }
 
-      if(offset.y < minOffset.y){
+      if(offset.y < minOffset.y && !isWrappingY()){
         snapPos.y = minOffset.y;
         snap = true;
       }
     }
 
     if(maxOffset!=null){
-      if(offset.x > maxOffset.x){
+      if(offset.x > maxOffset.x && !isWrappingX()){
         snapPos.x = maxOffset.x;
         snap = true;
       }
 
-      if(offset.y > maxOffset.y){
+      if(offset.y > maxOffset.y && !isWrappingY()){
         snapPos.y = maxOffset.y;
         snap = true;
       }
@@ -745,6 +768,111 @@ public class Swiper extends TransformerExtension {
     }
   }
 
+  // wrap-around methods // // // // //
+
+  /**
+   * Enables wrap-around scrolling (for endless carousels); on every axis with a positive wrap length, the scroll offset
+   * is taken modulo that length. The scrollable node is moved back by whole wrap lengths whenever it scrolls beyond
+   * the wrap length, so its content should repeat itself (see VirtualListNode.setWrapping); this keeps the position
+   * (and its precision) bounded no matter how far is scrolled. Offset limits don't apply to wrapped axes and
+   * the snap and step positions are reported within the wrap length.
+   * @param length The wrap length for each axis, null to disable wrapping
+   */
+  public Swiper setWrapLength(PVector length){
+    this.wrapLength = length == null || (length.x <= 0.0f && length.y <= 0.0f) ? null : length.get();
+    this.applyWrapping();
+    return this;
+  }
+
+  public Swiper setWrapLength(float x, float y){
+    return this.setWrapLength(new PVector(x, y, 0.0f));
+  }
+
+  public PVector getWrapLength(){
+    return this.wrapLength == null ? null : this.wrapLength.get();
+  }
+
+  public boolean isWrapping(){
+    return this.wrapLength != null;
+  }
+
+  private boolean isWrappingX(){
+    return this.wrapLength != null && this.wrapLength.x > 0.0f;
+  }
+
+  private boolean isWrappingY(){
+    return this.wrapLength != null && this.wrapLength.y > 0.0f;
+  }
+
+  /** Moves the scrollable node (and its drag and transformation targets) back by whole wrap lengths when it scrolled beyond them */
+  private void applyWrapping(){
+    if(this.wrapLength == null || this.scrollableNode == null || this.originalNodePosition == null)
+      return;
+
+    PVector pos = this.scrollableNode.getPosition(this.wrapPositionVec);
+    float shiftX = wrapShift(pos.x - this.originalNodePosition.x, this.wrapLength.x);
+    float shiftY = wrapShift(pos.y - this.originalNodePosition.y, this.wrapLength.y);
+
+    if(shiftX == 0.0f && shiftY == 0.0f)
+      return;
+
+    PVector globalBefore = this.scrollableNode.getGlobalPosition();
+    pos.x += shiftX;
+    pos.y += shiftY;
+    this.scrollableNode.setPosition(pos);
+    super.offsetTargetPosition(shiftX, shiftY, 0.0f);
+
+    if(this.dragStartNodePositionGlobal != null){
+      // the drag start position is global, so the shift has to be converted as well
+      this.dragStartNodePositionGlobal.add(this.scrollableNode.getGlobalPosition());
+      this.dragStartNodePositionGlobal.sub(globalBefore);
+    }
+  }
+
+  /** @return float - the multiple of length that brings the offset within (-length, 0], zero when length isn't positive */
+  private static float wrapShift(float offset, float length){
+    if(length <= 0.0f || (offset <= 0.0f && offset > -length))
+      return 0.0f;
+
+    return -(float)Math.ceil(offset / length) * length;
+  }
+
+  /** @return PVector - a copy of the given position, moved within the wrap length (see setWrapLength) */
+  private PVector toWrappedPosition(PVector pos){
+    PVector result = pos.get();
+
+    if(this.wrapLength != null && this.originalNodePosition != null){
+      result.x += wrapShift(result.x - this.originalNodePosition.x, this.wrapLength.x);
+      result.y += wrapShift(result.y - this.originalNodePosition.y, this.wrapLength.y);
+    }
+
+    return result;
+  }
+
+  /** @return PVector - the step position equivalent to the given (wrapped) step position that's nearest to the current step position */
+  private PVector toNearestWrappedStep(PVector step){
+    PVector result = step.get();
+    PVector interval = this.snapInterval;
+    if(interval == null)
+      return result;
+
+    PVector current = this.toStepPosition(this.bSnapping && super.isTransformingPosition() ? super.getTargetPosition() : this.scrollableNode.getPosition());
+
+    if(isWrappingX()){
+      float count = this.wrapLength.x / interval.x;
+      float delta = result.x - current.x;
+      result.x = current.x + delta - count * Math.round(delta / count);
+    }
+
+    if(isWrappingY()){
+      float count = this.wrapLength.y / interval.y;
+      float delta = result.y - current.y;
+      result.y = current.y + delta - count * Math.round(delta / count);
+    }
+
+    return result;
+  }
+
   // Static factory methods // // // // //
 
   public static Swiper enableFor(Node touchAreaNode){
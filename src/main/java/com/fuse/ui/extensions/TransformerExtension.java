@@ -21,6 +21,9 @@ public class TransformerExtension extends ExtensionBase {
   private PVector targetPosition, targetRotation, targetScale, targetSize;
   private float smoothValue = 7.0f;
   private Float smoothValueScale = null; // when null, smoothValue is used for scaling as well
+  /** When positive, smoothing is time-based; the smooth values apply to frames at this rate (see setSmoothingFrameRate) */
+  private float smoothingFrameRate = defaultSmoothingFrameRate;
+  private static float defaultSmoothingFrameRate = 0.0f;
   // time-based transformation expiration
   private Float maxTransformationTime = 5.0f;
   private float positionTimer;
@@ -38,6 +41,15 @@ public class TransformerExtension extends ExtensionBase {
   // endless recursion detection
   protected int maxTransformationsPerUpdate = 9;
   private int transformationsThisUpdate = 0;
+  // reusable vectors for reading node attributes without allocations
+  private PVector nodeVec = new PVector();
+  private PVector localizedVec = new PVector();
+  private PVector deltaVec = new PVector();
+  private PVector limitedVec = new PVector();
+  private PVector sizeVec = new PVector();
+  // storage for the target vectors above; those are null when not transforming, these are reused by every transformation
+  private PVector targetPositionVec = new PVector(), targetRotationVec = new PVector();
+  private PVector targetScaleVec = new PVector(), targetSizeVec = new PVector();
 
   // events
   public Event<TransformerExtension> idleEvent;
@@ -83,7 +95,7 @@ public class TransformerExtension extends ExtensionBase {
         this.node.setPosition(targetPosition);
         targetPosition = null;
       } else {
-        PVector vec = this.getPositionTransformationVelocity();
+        PVector vec = this.getPositionTransformationVelocity(deltaVec);
 
         if(vec.mag() < donePositionDeltaMag){
           // finalize
@@ -92,7 +104,8 @@ public class TransformerExtension extends ExtensionBase {
           targetPosition = null;
         } else {
           // apply delta to current node value
-          vec.add(this.node.getPosition());
+          vec.mult(this.getSmoothingTimeScale(smoothValue, dt));
+          vec.add(this.node.getPosition(nodeVec));
           //logger.info("TransformExtension applying smoothed pos: "+vec.toString());
           // apply update to node
           this.node.setPosition(vec);
@@ -107,9 +120,10 @@ public class TransformerExtension extends ExtensionBase {
         this.node.setRotation(targetRotation);
         targetRotation = null;
       } else {
-        PVector vec = targetRotation.get();
+        PVector vec = deltaVec;
+        vec.set(targetRotation);
         // delta
-        vec.sub(this.node.getRotation());
+        vec.sub(this.node.getRotation(nodeVec));
         // smoothed delta
         vec.mult(1.0f / this.smoothValue);
 
@@ -119,7 +133,8 @@ public class TransformerExtension extends ExtensionBase {
           targetRotation = null;
         } else {
           // apply delta to current node value
-          vec.add(this.node.getRotation());
+          vec.mult(this.getSmoothingTimeScale(smoothValue, dt));
+          vec.add(this.node.getRotation(nodeVec));
           // apply update to node
           this.node.setRotation(vec);
         }
@@ -138,9 +153,10 @@ public class TransformerExtension extends ExtensionBase {
         this.node.setScale(targetScale);
         this.targetScale = null;
       } else {
-        PVector vec = targetScale.get();
+        PVector vec = deltaVec;
+        vec.set(targetScale);
         // delta
-        vec.sub(this.node.getScale());
+        vec.sub(this.node.getScale(nodeVec));
         // smoothed delta
         vec.mult(1.0f / smoother);
 
@@ -151,7 +167,8 @@ public class TransformerExtension extends ExtensionBase {
           // logger.fine("scale transformation FINISHED");
         } else {
           // apply delta to current node value
-          vec.add(this.node.getScale());
+          vec.mult(this.getSmoothingTimeScale(smoother, dt));
+          vec.add(this.node.getScale(nodeVec));
           // apply update to node
           this.node.setScale(vec);
         }
@@ -168,9 +185,10 @@ public class TransformerExtension extends ExtensionBase {
         this.node.setSize(targetSize);
         targetSize = null;
       } else {
-        PVector vec = targetSize.get();
+        PVector vec = deltaVec;
+        vec.set(targetSize);
         // delta
-        vec.sub(this.node.getSize());
+        vec.sub(this.node.getSize(nodeVec));
         // smoothed delta
         vec.mult(1.0f / this.smoothValue);
 
@@ -180,7 +198,8 @@ public class TransformerExtension extends ExtensionBase {
           targetSize = null;
         } else {
           // apply delta to current node value
-          vec.add(this.node.getSize());
+          vec.mult(this.getSmoothingTimeScale(smoothValue, dt));
+          vec.add(this.node.getSize(nodeVec));
           // apply update to node
           this.node.setSize(vec);
         }
@@ -188,6 +207,16 @@ public class TransformerExtension extends ExtensionBase {
     }
   }
 
+  /**
+   * Sleeps when there are no pending (smoothed) transformations; subclasses with per-frame logic
+   * of their own need to override this (and wake themselves when that logic becomes active)
+   */
+  @Override public boolean canSleep(){
+    // transformationsThisUpdate is reset by update, so stay awake until that happened
+    return targetPosition == null && targetRotation == null && targetScale == null && targetSize == null
+      && transformationsThisUpdate == 0;
+  }
+
   @Override public void drawDebug(){
     PGraphics pg = Node.getPGraphics();
     pg.colorMode(PGraphics.RGB, 255);
@@ -213,16 +242,33 @@ public class TransformerExtension extends ExtensionBase {
   }
 
   public PVector getPositionTransformationVelocity(){
-    if(this.targetPosition == null)
-      return new PVector(0,0,0);
+    return getPositionTransformationVelocity(new PVector());
+  }
 
-    PVector vec = this.targetPosition.get();
+  /** Allocation-free alternative to getPositionTransformationVelocity() */
+  public PVector getPositionTransformationVelocity(PVector out){
+    if(this.targetPosition == null){
+      out.set(0.0f, 0.0f, 0.0f);
+      return out;
+    }
+
+    out.set(this.targetPosition);
     // delta
-    vec.sub(this.node.getPosition());
+    out.sub(this.node.getPosition(nodeVec));
     // smoothed delta
-    vec.mult(1.0f / this.smoothValue);
+    out.mult(1.0f / this.smoothValue);
 
-    return vec;
+    return out;
+  }
+
+  /** Moves the target of the active position transformation (if any) by the given offset */
+  protected void offsetTargetPosition(float x, float y, float z){
+    if(this.targetPosition == null)
+      return;
+
+    this.targetPosition.x += x;
+    this.targetPosition.y += y;
+    this.targetPosition.z += z;
   }
 
   public PVector getPositionTransformationDelta(){
@@ -231,7 +277,7 @@ public class TransformerExtension extends ExtensionBase {
 
     PVector vec = this.targetPosition.get();
     // delta
-    vec.sub(this.node.getPosition());
+    vec.sub(this.node.getPosition(nodeVec));
     return vec;
   }
 
@@ -241,16 +287,18 @@ public class TransformerExtension extends ExtensionBase {
       return;
     }
 
-    if(this.node.getPosition().equals(vec))
+    if(this.node.getPosition(nodeVec).equals(vec))
       return;
 
     if(bOnlyWhenNotTouched && this.node.isTouched())
       return;
 
-    vec = this.limitedPosition(vec);
+    vec = this.limitedPosition(vec, limitedVec);
+    this.wake();
 
     if(this.isSmoothing()){
-      this.targetPosition = vec.get();
+      this.targetPosition = targetPositionVec;
+      this.targetPosition.set(vec);
       this.positionTimer = 0.0f;
       return; // let the update method take it from here
     }
@@ -270,9 +318,10 @@ public class TransformerExtension extends ExtensionBase {
     Node parentNode = this.node.getParent();
     PVector localized;
     if(parentNode == null) {
-      localized = vec.get();
+      localized = localizedVec;
+      localized.set(vec);
     } else {
-      localized = parentNode.toLocal(vec);
+      localized = parentNode.toLocal(vec, localizedVec);
     }
     // logger.info("transform ext: global: "+vec.toString()+" to "+localized.toString());
     this.transformPosition(localized);
@@ -287,8 +336,11 @@ public class TransformerExtension extends ExtensionBase {
     if(bOnlyWhenNotTouched && this.node.isTouched())
       return;
 
+    this.wake();
+
     if(this.isSmoothing()){
-      this.targetRotation = vec.get();
+      this.targetRotation = targetRotationVec;
+      this.targetRotation.set(vec);
       return; // let the update method take it from here
     }
 
@@ -309,16 +361,18 @@ public class TransformerExtension extends ExtensionBase {
       return;
     }
 
-    if(this.node.getScale().equals(vec))
+    if(this.node.getScale(nodeVec).equals(vec))
       return;
 
     if(bOnlyWhenNotTouched && this.node.isTouched())
       return;
 
-    vec = this.limitedScale(vec);
+    vec = this.limitedScale(vec, limitedVec);
+    this.wake();
 
     if(this.isSmoothingScale()){
-      this.targetScale = vec.get();
+      this.targetScale = targetScaleVec;
+      this.targetScale.set(vec);
       scaleTimer = 0.0f;
       return; // let the update method take it from here
     }
@@ -335,16 +389,18 @@ public class TransformerExtension extends ExtensionBase {
   }
 
   public void transformSize(PVector vec){
-    if(this.node.getSize().equals(vec))
+    if(this.node.getSize(nodeVec).equals(vec))
       return;
 
     if(bOnlyWhenNotTouched && this.node.isTouched())
       return;
 
     //vec = this.limitedScale(vec);
+    this.wake();
 
     if(this.isSmoothing()){
-      this.targetSize = vec.get();
+      this.targetSize = targetSizeVec;
+      this.targetSize.set(vec);
       sizeTimer = 0.0f;
       return; // let the update method take it from here
     }
@@ -362,31 +418,40 @@ public class TransformerExtension extends ExtensionBase {
 
   public void transformWidth(float newValue) {
     // consider active resize transformation that might be going on
-    PVector vec = this.targetSize != null ? this.targetSize.get() : this.node.getSize();
+    PVector vec = this.node.getSize(sizeVec);
+    if(this.targetSize != null) vec.set(this.targetSize);
     vec.x = newValue;
     this.transformSize(vec);
   }
 
   public void transformHeight(float newValue) {
     // consider active resize transformation that might be going on
-    PVector vec = this.targetSize != null ? this.targetSize.get() : this.node.getSize();
+    PVector vec = this.node.getSize(sizeVec);
+    if(this.targetSize != null) vec.set(this.targetSize);
     vec.y = newValue;
     this.transformSize(vec);
   }
 
   protected PVector limitedPosition(PVector vec){
-    PVector result = vec.get();
+    return limitedPosition(vec, new PVector());
+  }
+
+  /** Allocation-free alternative to limitedPosition(PVector); out may be the same instance as vec */
+  protected PVector limitedPosition(PVector vec, PVector out){
+    PVector result = out;
+    result.set(vec);
     Node parentNode = this.node.getParent();
 
     if(bFillParent && parentNode != null){
-      PVector sizeScaled = this.node.getSizeScaled();
+      float scaledWidth = this.node.getWidth() * this.node.getScaleX();
+      float scaledHeight = this.node.getHeight() * this.node.getScaleY();
 
-      if(sizeScaled.x > parentNode.getSize().x){ // can only fill if bigger
-        result.x = Math.min(0.0f, Math.max(-sizeScaled.x, result.x));
+      if(scaledWidth > parentNode.getWidth()){ // can only fill if bigger
+        result.x = Math.min(0.0f, Math.max(-scaledWidth, result.x));
       }
 
-      if(sizeScaled.y > parentNode.getSize().y){
-        result.y = Math.min(0.0f, Math.max(-sizeScaled.y, result.y));
+      if(scaledHeight > parentNode.getHeight()){
+        result.y = Math.min(0.0f, Math.max(-scaledHeight, result.y));
       }
     }
 
@@ -401,8 +466,10 @@ public class TransformerExtension extends ExtensionBase {
     return result;
   }
 
-  private PVector limitedScale(PVector vec){
-    PVector result = vec.get();
+  /** @return PVector - out, set to the given scale within the scale limits; out may be the same instance as vec */
+  private PVector limitedScale(PVector vec, PVector out){
+    PVector result = out;
+    result.set(vec);
 
     if(minScale[0] != null && minScale[0] > result.x) result.x = minScale[0];
     if(minScale[1] != null && minScale[1] > result.y) result.y = minScale[1];
@@ -438,10 +505,28 @@ public class TransformerExtension extends ExtensionBase {
     return this.targetPosition == null ? null : this.targetPosition.get();
   }
 
+  /** Allocation-free alternative to getTargetPosition(); returns null (without touching out) when not transforming position */
+  public PVector getTargetPosition(PVector out){
+    if(this.targetPosition == null)
+      return null;
+
+    out.set(this.targetPosition);
+    return out;
+  }
+
   public PVector getTargetScale() {
     return this.targetScale == null ? null : this.targetScale.get();
   }
 
+  /** Allocation-free alternative to getTargetScale(); returns null (without touching out) when not transforming scale */
+  public PVector getTargetScale(PVector out) {
+    if(this.targetScale == null)
+      return null;
+
+    out.set(this.targetScale);
+    return out;
+  }
+
   public PVector getTargetSize() {
     return this.targetSize == null ? null : this.targetSize.get();
   }
@@ -478,6 +563,49 @@ public class TransformerExtension extends ExtensionBase {
     return this.smoothValueScale == null ? this.smoothValue : this.smoothValueScale;
   }
 
+  /**
+   * Makes smoothing time-based (frame-rate independent); every transformation then covers the same fraction
+   * of its remaining delta per second, regardless of the update rate, using exponential decay. The smooth values
+   * keep their meaning for updates at the given frame rate (a smooth value of 10 covers 1/10th of the remaining
+   * delta per frame at that rate), so existing tuning is kept when using the rate it was tuned at.
+   * The done thresholds and velocity (see getPositionTransformationVelocity) are also relative to that frame rate.
+   * @param fps The frame rate the smooth values apply to, zero (default) for per-update smoothing
+   */
+  public TransformerExtension setSmoothingFrameRate(float fps){
+    this.smoothingFrameRate = Math.max(0.0f, fps);
+    return this;
+  }
+
+  public float getSmoothingFrameRate(){
+    return this.smoothingFrameRate;
+  }
+
+  public boolean isTimeBasedSmoothing(){
+    return this.smoothingFrameRate > 0.0f;
+  }
+
+  /** Sets the smoothing frame rate of TransformerExtensions created after this call (see setSmoothingFrameRate) */
+  public static void setDefaultSmoothingFrameRate(float fps){
+    defaultSmoothingFrameRate = Math.max(0.0f, fps);
+  }
+
+  public static float getDefaultSmoothingFrameRate(){
+    return defaultSmoothingFrameRate;
+  }
+
+  /**
+   * @return float - multiplier for a per-frame smoothing step (delta / smoother) that makes it cover the right
+   * part of the delta in an update of dt seconds; always 1 without time-based smoothing
+   */
+  private float getSmoothingTimeScale(float smoother, float dt){
+    if(this.smoothingFrameRate <= 0.0f)
+      return 1.0f;
+
+    // fraction of the delta remaining after dt seconds, when 1/smoother of it is covered every frame
+    double remaining = Math.pow(1.0 - 1.0 / smoother, dt * this.smoothingFrameRate);
+    return (float)((1.0 - remaining) * smoother);
+  }
+
   public void disableSmoothing(){
     setSmoothValue(0.0f);
   }
@@ -516,8 +644,8 @@ public class TransformerExtension extends ExtensionBase {
 
   public void setLockX(boolean enable) {
 	  if(enable) {
-		  this.setMinPosX(this.node.getPosition().x);
-		  this.setMaxPosX(this.node.getPosition().x);
+		  this.setMinPosX(this.node.getX());
+		  this.setMaxPosX(this.node.getX());
 	  } else {
 		  this.setMinPosX(null);
 		  this.setMaxPosX(null);
@@ -526,8 +654,8 @@ public class TransformerExtension extends ExtensionBase {
 
   public void setLockY(boolean enable) {
 	  if(enable) {
-		  this.setMinPosY(this.node.getPosition().y);
-		  this.setMaxPosY(this.node.getPosition().y);
+		  this.setMinPosY(this.node.getY());
+		  this.setMaxPosY(this.node.getY());
 	  } else {
 		  this.setMinPosY(null);
 		  this.setMaxPosY(null);
@@ -536,8 +664,8 @@ public class TransformerExtension extends ExtensionBase {
 
   public void setLockZ(boolean enable) {
     if(enable) {
-      this.setMinPosZ(this.node.getPosition().z);
-      this.setMaxPosZ(this.node.getPosition().z);
+      this.setMinPosZ(this.node.getZ());
+      this.setMaxPosZ(this.node.getZ());
     } else {
       this.setMinPosZ(null);
       this.setMaxPosZ(null);
@@ -0,0 +1,101 @@
+package com.fuse.ui;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import processing.core.PVector;
+import com.fuse.ui.extensions.Draggable;
+
+public class NodePoolTest {
+
+  @Test public void acquire_release(){
+    NodePool<Node> pool = new NodePool<>(() -> new Node());
+    List<String> strings = new ArrayList<>();
+
+    Node parent = new Node();
+    Node n = pool.acquire();
+    assertEquals(pool.getCreatedCount(), 1);
+    assertEquals(pool.getInUseCount(), 1);
+
+    n.setName("item");
+    n.setPosition(10, 20);
+    n.setSize(100, 50);
+    n.setScale(2.0f);
+    n.setVisible(false);
+    n.addChild(new Node());
+    n.use(new Draggable());
+    n.positionChangeEvent.addListener((Node node) -> strings.add("moved"));
+    parent.addChild(n);
+
+    assertEquals(pool.release(n), true);
+    assertEquals(pool.release(n), false); // already released
+    assertEquals(pool.getInUseCount(), 0);
+    assertEquals(pool.getIdleCount(), 1);
+    assertEquals(parent.getChildCount(), 0);
+    assertEquals(n.getRecycleCount(), 1);
+
+    // reused, in its initial state
+    Node reused = pool.acquire();
+    assertEquals(reused, n);
+    assertEquals(pool.getCreatedCount(), 1);
+    assertEquals(pool.getReusedCount(), 1);
+    assertEquals(pool.getIdleCount(), 0);
+    assertEquals(reused.getParent(), null);
+    assertEquals(reused.getName(), "");
+    assertEquals(reused.getPosition(), new PVector(0,0,0));
+    assertEquals(reused.getSize(), new PVector(0,0,0));
+    assertEquals(reused.getScale(), new PVector(1,1,1));
+    assertEquals(reused.isVisible(), true);
+    assertEquals(reused.getChildCount(), 0);
+    assertEquals(reused.getExtensions().length, 0);
+    reused.setPosition(5, 5);
+    assertEquals(strings.size(), 0);
+
+    // hooks and idle limit
+    pool.setAcquireHook((Node node) -> strings.add("acquire"));
+    pool.setReleaseHook((Node node) -> strings.add("release"));
+    pool.setMaxIdleCount(1);
+    Node other = pool.acquire();
+    pool.release(reused);
+    pool.release(other);
+    assertEquals(String.join(",", strings), "acquire,release,release");
+    assertEquals(pool.getIdleCount(), 1);
+    assertEquals(pool.getDiscardedCount(), 1);
+
+    pool.prefill(3);
+    assertEquals(pool.getIdleCount(), 3);
+    pool.clear();
+    assertEquals(pool.getIdleCount(), 0);
+  }
+
+  @Test public void release_whileTouched(){
+    NodePool<Node> pool = new NodePool<>(() -> new Node());
+    Node scene = new Node();
+    scene.setSize(200, 200);
+    TouchManager man = new TouchManager(scene);
+
+    Node n = pool.acquire();
+    n.setSize(100, 100);
+    scene.addChild(n);
+
+    List<String> strings = new ArrayList<>();
+    man.touchDown(0, new PVector(10, 10, 0));
+    assertEquals(n.isTouched(), true);
+
+    // released and reused elsewhere while the touch is still active
+    pool.release(n);
+    assertEquals(n.isTouched(), false);
+    Node reused = pool.acquire();
+    reused.setPosition(150, 150);
+    reused.setSize(10, 10);
+    scene.addChild(reused);
+    reused.touchEvent.addListener((TouchEvent e) -> strings.add(e.eventType.toString()));
+
+    man.touchUp(0, new PVector(10, 10, 0));
+    assertEquals(strings.size(), 0);
+    assertEquals(reused.isTouched(), false);
+  }
+}
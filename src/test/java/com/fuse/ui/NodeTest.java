@@ -8,7 +8,15 @@ import org.junit.Ignore;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import processing.core.*;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.FieldLayout;
+import org.openjdk.jol.info.GraphLayout;
 
 import com.fuse.ui.extensions.ExtensionBase;
 import com.fuse.ui.extensions.Constrain;
@@ -17,6 +25,7 @@ import com.fuse.ui.extensions.PinchZoom;
 import com.fuse.ui.extensions.SmoothScroll;
 import com.fuse.ui.extensions.Swiper;
 import com.fuse.ui.extensions.TouchEventForwarder;
+import com.fuse.utils.Event;
 
 public class NodeTest {
 
@@ -35,6 +44,228 @@ public class NodeTest {
     assertEquals(node.isVisible(), true);
   }
 
+  /** Node that moves based on its own state and that of its parent, for comparing update modes */
+  private static class Mover extends Node {
+    private int frames = 0;
+
+    @Override public void update(float dt){
+      frames++;
+      PVector parentPos = getParent() == null ? new PVector() : getParent().toGlobal(new PVector(1, 0));
+      setPosition(getX() + dt * getChildNodes().size(), getY() + parentPos.x * 0.001f);
+      rotate(dt * 0.1f);
+
+      // changes to the own subtree are allowed
+      if(frames == 3 && getChildNodes().isEmpty())
+        addChild(new Mover());
+    }
+  }
+
+  private static Node createMoverScene(){
+    Node scene = new Node();
+    for(int i=0; i<8; i++){
+      Node panel = new Mover();
+      panel.setPosition(i * 100, 0);
+      scene.addChild(panel);
+
+      for(int j=0; j<20; j++){
+        Node n = new Mover();
+        n.setVisible(j != 5);
+        panel.addChild(n);
+        for(int k=0; k<j % 4; k++)
+          n.addChild(new Mover());
+      }
+    }
+    return scene;
+  }
+
+  @Test public void setParallelUpdate(){
+    Node sequential = createMoverScene();
+    Node parallel = createMoverScene().setParallelUpdate(true);
+    parallel.getChildNodes().get(2).setParallelUpdate(true); // nested
+    assertEquals(parallel.isParallelUpdate(), true);
+
+    int threshold = Node.getParallelUpdateThreshold();
+    Node.setParallelUpdateThreshold(2);
+
+    try {
+      for(int frame=0; frame<10; frame++){
+        sequential.updateSubtree(0.016f);
+        parallel.updateSubtree(0.016f);
+      }
+    } finally {
+      Node.setParallelUpdateThreshold(threshold);
+    }
+
+    List<Node> a = new ArrayList<>();
+    List<Node> b = new ArrayList<>();
+    sequential.loadSubtreeList(a, false);
+    parallel.loadSubtreeList(b, false);
+    assertEquals(a.size(), b.size());
+
+    for(int i=1; i<a.size(); i++){
+      assertEquals(((Mover)b.get(i)).frames, ((Mover)a.get(i)).frames);
+      assertEquals(b.get(i).getGlobalPosition(), a.get(i).getGlobalPosition());
+      assertEquals(b.get(i).getRotationZ(), a.get(i).getRotationZ(), 0.0f);
+    }
+  }
+
+  @Test public void setParallelUpdate_threshold(){
+    List<Thread> threads = new ArrayList<>();
+    Node scene = new Node().setParallelUpdate(true);
+    for(int i=0; i<4; i++){
+      scene.addChild(new Node(){
+        @Override public void update(float dt){
+          synchronized(threads){ threads.add(Thread.currentThread()); }
+        }
+      });
+    }
+
+    // default threshold; single nodes are updated by the calling task
+    scene.updateSubtree(0.016f);
+    assertEquals(threads.size(), 4);
+    for(Thread thread : threads)
+      assertEquals(thread, threads.get(0));
+  }
+
+  private static boolean await(CountDownLatch latch){
+    try {
+      return latch.await(1, TimeUnit.SECONDS);
+    } catch(InterruptedException exc){
+      return false;
+    }
+  }
+
+  @Test public void setParallelUpdate_readSiblingSubtree(){
+    CountDownLatch readerInside = new CountDownLatch(1);
+    CountDownLatch moving = new CountDownLatch(1);
+    AtomicBoolean pauseRead = new AtomicBoolean(false);
+
+    Node scene = new Node().setParallelUpdate(true);
+    Node moverParent = new Node();
+    Node mover = new Node(){
+      @Override public PMatrix3D getGlobalTransformMatrix(){
+        PMatrix3D mat = super.getGlobalTransformMatrix();
+
+        // pause a reader while it's filling the cache of our child, give the owner a chance to move us
+        if(pauseRead.compareAndSet(true, false)){
+          readerInside.countDown();
+          await(moving);
+          try { Thread.sleep(50); } catch(InterruptedException exc){}
+        }
+
+        return mat;
+      }
+
+      @Override public void update(float dt){
+        await(readerInside);
+        moving.countDown();
+        setPosition(getX() + 100.0f, 0.0f);
+      }
+    };
+    Node moverChild = new Node();
+    moverChild.setPosition(10.0f, 0.0f);
+    mover.addChild(moverChild);
+    moverParent.addChild(mover);
+    scene.addChild(moverParent);
+
+    // a sibling subtree that reads the transformations of the moving nodes
+    scene.addChild(new Node(){
+      @Override public void update(float dt){
+        pauseRead.set(true);
+        moverChild.toGlobal(new PVector());
+      }
+    });
+
+    int threshold = Node.getParallelUpdateThreshold();
+    Node.setParallelUpdateThreshold(1);
+    Node.setParallelUpdatePool(new ForkJoinPool(2));
+
+    try {
+      scene.updateSubtree(0.016f);
+    } finally {
+      Node.setParallelUpdateThreshold(threshold);
+      Node.setParallelUpdatePool(null);
+    }
+
+    assertEquals(readerInside.getCount(), 0);
+    assertEquals(moving.getCount(), 0);
+    // cached transformations may not outlive the changes they were based on
+    assertEquals(mover.getGlobalTransformMatrix().m03, 100.0f, 0.0f);
+    assertEquals(moverChild.getGlobalTransformMatrix().m03, 110.0f, 0.0f);
+    assertEquals(moverChild.getToLocalMatrix().m03, -110.0f, 0.0f);
+  }
+
+  /** Node that records the dt of its updates */
+  private static class UpdateRecorder extends Node {
+    List<Float> dts = new ArrayList<>();
+    @Override public void update(float dt){ dts.add(dt); }
+  }
+
+  @Test public void setUpdateFrameInterval(){
+    Node scene = new Node();
+    UpdateRecorder parent = new UpdateRecorder();
+    UpdateRecorder child = new UpdateRecorder();
+    scene.addChild(parent);
+    parent.addChild(child);
+
+    parent.setUpdateFrameInterval(3);
+    assertEquals(parent.getUpdateFrameInterval(), 3);
+
+    for(int i=0; i<7; i++)
+      scene.updateSubtree(0.25f);
+
+    // applies to the entire subtree, with the accumulated dt
+    assertEquals(parent.dts.size(), 2);
+    assertEquals(child.dts.size(), 2);
+    assertEquals(child.dts.get(0), 0.75f, 0.0f);
+
+    parent.setUpdateFrameInterval(1);
+    scene.updateSubtree(0.25f);
+    assertEquals(child.dts.size(), 3);
+    assertEquals(child.dts.get(2), 0.5f, 0.0f); // frame 7 and 8
+  }
+
+  @Test public void setUpdateRate(){
+    UpdateRecorder node = new UpdateRecorder();
+    node.setUpdateRate(2.0f);
+    assertEquals(node.getUpdateRate(), 2.0f, 0.0f);
+
+    for(int i=0; i<12; i++)
+      node.updateSubtree(0.125f);
+
+    assertEquals(node.dts.size(), 3);
+    assertEquals(node.dts.get(0), 0.5f, 0.0f);
+
+    // slower frames; rate can't exceed the frame rate
+    node.dts.clear();
+    for(int i=0; i<3; i++)
+      node.updateSubtree(0.75f);
+    assertEquals(node.dts.size(), 3);
+
+    node.setUpdateRate(0.0f);
+    assertEquals(node.getUpdateRate(), 0.0f, 0.0f);
+  }
+
+  @Test public void setUpdateFrozen(){
+    Node scene = new Node();
+    UpdateRecorder node = new UpdateRecorder();
+    UpdateRecorder child = new UpdateRecorder();
+    scene.addChild(node);
+    node.addChild(child);
+
+    node.setUpdateFrozen(true);
+    assertEquals(node.isUpdateFrozen(), true);
+    scene.updateSubtree(1.0f);
+    scene.updateSubtree(1.0f, true);
+    assertEquals(node.dts.size(), 0);
+    assertEquals(child.dts.size(), 0);
+
+    node.setUpdateFrozen(false);
+    scene.updateSubtree(0.5f);
+    assertEquals(child.dts.size(), 1);
+    assertEquals(child.dts.get(0), 0.5f, 0.0f);
+  }
+
   @Test public void loadSubtreeList(){
     Node node = new Node();
     node.setName("scene");
@@ -212,6 +443,307 @@ public class NodeTest {
     assertEquals(node.getChildrenWithName("aa").size(), 3);
   }
 
+  @Test public void getChildWithName_index(){
+    Node scene = new Node("scene");
+    Node a = new Node("a");
+    Node b = new Node("b");
+    Node a1 = new Node("x");
+    Node b1 = new Node("x");
+    Node b2 = new Node("y");
+    Node b21 = new Node("x");
+    scene.addChild(a);
+    scene.addChild(b);
+    a.addChild(a1);
+    b.addChild(b1);
+    b.addChild(b2);
+    b2.addChild(b21);
+
+    assertEquals(scene.getChildWithName("x"), a1);
+    assertEquals(scene.getChildWithName("x", 0), null);
+    assertEquals(b.getChildWithName("x"), b1);
+    assertEquals(scene.getChildrenWithName("x").size(), 3);
+    assertEquals(scene.getChildrenWithName("x", 1).size(), 2);
+    assertEquals(b2.getChildrenWithName("x").get(0), b21);
+
+    // direct children are preferred over deeper offspring
+    b1.setName("z");
+    b21.setName("y");
+    assertEquals(b.getChildWithName("y"), b2);
+    b.addChild(new Node("q"));
+    Node b3 = new Node("y");
+    b2.setName("w");
+    b.addChild(b3);
+    assertEquals(b.getChildWithName("y"), b3);
+    assertEquals(b.getChildrenWithName("y").get(0), b21);
+    assertEquals(b.getChildrenWithName("y").get(1), b3);
+
+    // index follows hierarchy changes
+    b.removeChild(b2);
+    assertEquals(scene.getChildrenWithName("y").size(), 1);
+    assertEquals(b2.getChildWithName("y"), b21);
+    a.addChild(b2);
+    assertEquals(scene.getChildWithName("y"), b21); // a's branch is searched before b's
+    assertEquals(b.getChildWithName("y"), b3);
+    assertEquals(scene.getChildWithName("w", 0), null);
+    assertEquals(scene.getChildWithName("w", 1), b2);
+
+    // removal from the middle of a name's list keeps the others
+    Node c = new Node("c");
+    Node c1 = new Node("x"), c2 = new Node("x"), c3 = new Node("x");
+    c.addChild(c1);
+    c.addChild(c2);
+    c.addChild(c3);
+    scene.addChild(c);
+    c.removeChild(c2);
+    assertEquals(c.getChildrenWithName("x").size(), 2);
+    c1.setName("v");
+    assertEquals(c.getChildWithName("x"), c3);
+
+    // unnamed nodes aren't indexed, but can still be found
+    Node unnamed = new Node();
+    c.addChild(unnamed);
+    assertEquals(unnamed.nameIndex, scene.nameIndex);
+    assertEquals(unnamed.nameIndexSlot, -1);
+    assertEquals(c.getChildWithName(""), unnamed);
+    assertEquals(scene.getChildrenWithName("", 0).size(), 0);
+    assertEquals(scene.getChildrenWithName("").size(), 1);
+  }
+
+  @Test public void hasChild_concurrentCompaction() throws InterruptedException {
+    Node parent = new Node();
+    int alive = 64;
+    // nodes are reused, long after they were removed
+    Node[] nodes = new Node[alive * 4];
+
+    for(int i=0; i<nodes.length; i++)
+      nodes[i] = new Node();
+
+    for(int i=0; i<alive; i++)
+      parent.addChild(nodes[i]);
+
+    // the children are the nodes of sequence numbers [front, front+alive)
+    java.util.concurrent.atomic.AtomicInteger front = new java.util.concurrent.atomic.AtomicInteger(0);
+    long endTime = System.currentTimeMillis() + 500;
+
+    // keeps removing the first child and appending a new one, which compacts (moves) the remaining children
+    Thread mutator = new Thread(() -> {
+      for(int i=0; System.currentTimeMillis() < endTime; i++){
+        parent.removeChild(nodes[i % nodes.length]);
+        front.incrementAndGet();
+        parent.addChild(nodes[(i+alive) % nodes.length]);
+      }
+    });
+
+    mutator.start();
+    int misses = 0;
+
+    while(mutator.isAlive()){
+      // a child that stays attached during the check (unless the mutator got far ahead)
+      int seq = front.get() + alive / 2;
+      if(!parent.hasChild(nodes[seq % nodes.length]) && front.get() <= seq - alive / 4)
+        misses++;
+    }
+
+    mutator.join();
+    assertEquals(misses, 0);
+  }
+
+  @Test public void getChildWithName_concurrentIndexCreation() throws InterruptedException {
+    Node scene = new Node("scene");
+    Node[] branches = new Node[8];
+
+    for(int i=0; i<branches.length; i++){
+      branches[i] = new Node("branch");
+      scene.addChild(branches[i]);
+
+      for(int j=0; j<1000; j++)
+        branches[i].addChild(new Node("item"+j));
+    }
+
+    // every branch does its first lookup on its own thread
+    Thread[] threads = new Thread[branches.length];
+    for(int i=0; i<branches.length; i++){
+      Node branch = branches[i];
+      threads[i] = new Thread(() -> branch.getChildWithName("item999"));
+      threads[i].start();
+    }
+
+    for(Thread t : threads)
+      t.join();
+
+    for(Node branch : branches){
+      assertEquals(branch.nameIndex, scene.nameIndex);
+      assertEquals(branch.getChild(500).nameIndex, scene.nameIndex);
+    }
+
+    assertEquals(scene.getChildrenWithName("item999").size(), branches.length);
+  }
+
+  @Test public void isInsideClipping(){
+    Node outer = new Node();
+    outer.setSize(100, 100);
+    outer.setClipContent(true);
+    Node inner = new Node();
+    inner.setPosition(50, 50);
+    inner.setSize(100, 100);
+    inner.setClipContent(true);
+    Node leaf = new Node();
+    leaf.setSize(200, 200);
+    outer.addChild(inner);
+    inner.addChild(leaf);
+
+    assertEquals(leaf.getClippingNode(), inner);
+    assertEquals(leaf.isInsideClipping(new PVector(75, 75)), true);
+    // inside inner, but outside outer
+    assertEquals(leaf.isInsideClipping(new PVector(125, 125)), false);
+    // inside outer, but outside inner
+    assertEquals(leaf.isInsideClipping(new PVector(25, 25)), false);
+
+    inner.setClipContent(false);
+    assertEquals(leaf.getClippingNode(), outer);
+    assertEquals(leaf.isInsideClipping(new PVector(25, 25)), true);
+
+    // reparenting updates the entire subtree
+    Node other = new Node();
+    other.addChild(inner);
+    assertEquals(inner.getClippingNode(), null);
+    assertEquals(leaf.getClippingNode(), null);
+    assertEquals(leaf.isInsideClipping(new PVector(500, 500)), true);
+  }
+
+  /** Reads a private Node attribute, for verifying how a node stores its state */
+  private static Object getPrivateField(Node node, String name){
+    try {
+      java.lang.reflect.Field field = Node.class.getDeclaredField(name);
+      field.setAccessible(true);
+      return field.get(node);
+    } catch(ReflectiveOperationException exc){
+      throw new AssertionError(exc);
+    }
+  }
+
+  @Test public void footprint(){
+    Node parent = new Node();
+    Node leaf = new Node();
+    Node otherLeaf = new Node();
+    leaf.setPosition(10, 20);
+    parent.addChild(leaf);
+    parent.addChild(otherLeaf);
+
+    // leaves share the (immutable) empty child container
+    assertTrue(getPrivateField(leaf, "childNodes") == getPrivateField(otherLeaf, "childNodes"));
+    assertFalse(getPrivateField(parent, "childNodes") == getPrivateField(leaf, "childNodes"));
+    parent.removeChild(leaf);
+    parent.removeChild(otherLeaf);
+    assertEquals(parent.getChildNodes().size(), 0);
+
+    // local matrices are only allocated when requested
+    assertEquals(getPrivateField(leaf, "localTransformMatrix"), null);
+    assertEquals(getPrivateField(otherLeaf, "localTransformMatrix"), null);
+    assertEquals(leaf.getLocalTransformMatrix().m03, 10.0f, 0.0001f);
+    assertFalse(getPrivateField(leaf, "localTransformMatrix") == null);
+  }
+
+  /**
+   * Memory benchmark (not run by default, remove @Ignore to run); prints the average heap footprint
+   * of (decorative) leaf nodes, with and without the data that's only allocated when needed
+   */
+  @Ignore @Test public void footprint_benchmark(){
+    printFootprint("unpositioned leaf", node -> {});
+    printFootprint("positioned leaf", node -> node.setPosition(10, 20));
+    // what every leaf would cost if transformation matrices and child containers were allocated eagerly
+    printFootprint("positioned leaf, with transformation caches", node -> {
+      node.setPosition(10, 20);
+      node.getLocalTransformMatrix();
+      node.getToLocalMatrix();
+      node.getToLocalWithoutTranslationsMatrix();
+    });
+    printFootprint("positioned leaf, with child container", node -> {
+      node.setPosition(10, 20);
+      Node child = new Node();
+      node.addChild(child);
+      node.removeChild(child);
+    });
+  }
+
+  private static void printFootprint(String description, Consumer<Node> setup){
+    int count = 50000;
+    Node root = new Node();
+    Node[] nodes = new Node[count];
+    Runtime runtime = Runtime.getRuntime();
+
+    System.gc();
+    long before = runtime.totalMemory() - runtime.freeMemory();
+
+    for(int i=0; i<count; i++){
+      nodes[i] = new Node();
+      setup.accept(nodes[i]);
+    }
+
+    Node.bulkAttach(() -> root.addChildren(nodes));
+
+    System.gc();
+    long after = runtime.totalMemory() - runtime.freeMemory();
+    System.out.println("Node footprint ("+description+"): ~"+Long.toString((after - before) / count)+" bytes per node");
+    assertEquals(root.getChildNodes().size(), count);
+  }
+
+  /**
+   * @return long - retained size (in bytes) of the node, without the objects it shares with other nodes
+   * and without its events and states (their size depends on the com.fuse.utils library); the lowest of a few rounds,
+   * as objects moved by the garbage collector in between measurements aren't recognized as shared
+   */
+  private static long ownRetainedSize(Node node){
+    List<Object> shared = new ArrayList<>();
+    shared.add(new Node());
+
+    for(Class<?> cls = Node.class; cls != null; cls = cls.getSuperclass()){
+      for(java.lang.reflect.Field field : cls.getDeclaredFields()){
+        if(!java.lang.reflect.Modifier.isStatic(field.getModifiers()) && field.getType().getPackage() == Event.class.getPackage()){
+          try {
+            field.setAccessible(true);
+            shared.add(field.get(node));
+          } catch(ReflectiveOperationException exc){
+            throw new AssertionError(exc);
+          }
+        }
+      }
+    }
+
+    long result = Long.MAX_VALUE;
+    for(int round=0; round<3; round++){
+      GraphLayout sharedLayout = GraphLayout.parseInstance(shared.toArray());
+      result = Math.min(result, GraphLayout.parseInstance(node).subtract(sharedLayout).totalSize());
+    }
+    return result;
+  }
+
+  @Test public void footprint_layout(){
+    ClassLayout layout = ClassLayout.parseClass(Node.class);
+
+    // transformation attributes are stored as primitives in the node itself
+    for(FieldLayout field : layout.fields())
+      assertFalse(field.typeClass().equals(PVector.class.getName()));
+
+    // local matrix is only materialized when requested, and reflects the latest attributes
+    Node node = new Node();
+    node.setPosition(10, 20);
+    node.setScale(2.0f);
+    assertEquals(node.getLocalTransformMatrix().m03, 10.0f, 0.0001f);
+    assertEquals(node.getLocalTransformMatrix().m00, 2.0f, 0.0001f);
+    node.setX(30);
+    assertEquals(node.getLocalTransformMatrix().m03, 30.0f, 0.0001f);
+
+    // apart from the node itself, a positioned leaf retains less than a single (lazily allocated) matrix
+    Node leaf = new Node();
+    leaf.setPosition(10, 20);
+    long nodeSize = layout.instanceSize();
+    long matrixSize = ClassLayout.parseClass(PMatrix3D.class).instanceSize();
+    assertTrue(ownRetainedSize(leaf) < nodeSize + matrixSize);
+    leaf.getToLocalMatrix();
+    assertTrue(ownRetainedSize(leaf) >= nodeSize + matrixSize);
+  }
+
   @Test public void getParent(){
     Node parent = new Node();
     Node child = new Node();
@@ -281,6 +813,42 @@ public class NodeTest {
     assertEquals(strings.size(), 4);
   }
 
+  @Test public void bulkAttach(){
+    Node scene = new Node("scene");
+    scene.setClipContent(true);
+    List<String> strs = new ArrayList<>();
+    scene.forAllOffspring((Node n) -> strs.add(n.getName()));
+    List<Node> parented = new ArrayList<>();
+
+    Node.bulkAttach(() -> {
+      // built bottom-up
+      Node a = new Node("a");
+      a.newParentEvent.addListener((Node n) -> parented.add(n));
+      a.forAllOffspring((Node n) -> strs.add("a:"+n.getName()));
+      Node b = new Node("b");
+      Node c = new Node("c");
+      b.addChild(c);
+      a.addChildren(b, new Node("d"));
+      scene.addChild(a);
+      a.addChild(new Node("e")); // added after a itself was attached
+
+      // nothing sent yet
+      assertEquals(strs.size(), 0);
+      assertEquals(parented.size(), 0);
+      assertEquals(c.getClippingNode(), null);
+    });
+
+    // every node is reported exactly once to every listening ancestor
+    assertEquals(String.join(",", strs), "a,a:b,b,a:c,c,a:d,d,a:e,e"); // nearest ancestors first
+    assertEquals(parented.size(), 1);
+    assertEquals(scene.getChildWithName("c").getClippingNode(), scene);
+
+    // attachments outside of bulkAttach notify immediately
+    strs.clear();
+    scene.getChildWithName("b", 1).addChild(new Node("f"));
+    assertEquals(String.join(",", strs), "a:f,f");
+  }
+
   @Test public void setClipContent(){
     // create parent node with children and verify children don't have clipping nodes
     Node parent = new Node();
@@ -420,6 +988,50 @@ public class NodeTest {
   }
 
 
+  @Test public void getChildNodesSnapshot(){
+    Node a = new Node();
+    Node[] nodes = new Node[5];
+    for(int i=0; i<nodes.length; i++){
+      nodes[i] = new Node();
+      a.addChild(nodes[i]);
+    }
+
+    Node[] snapshot = a.getChildNodesSnapshot();
+    assertEquals(snapshot.length, 5);
+    assertTrue(a.getChildNodesSnapshot() == snapshot); // cached until changed
+
+    // removal doesn't affect existing snapshots
+    a.removeChild(nodes[1]);
+    a.removeChild(nodes[3]);
+    assertEquals(snapshot.length, 5);
+    assertEquals(a.getChildNodesSnapshot().length, 3);
+    assertEquals(a.getChildCount(), 3);
+    assertEquals(a.hasChild(nodes[1]), false);
+    assertEquals(a.indexOf(nodes[1]), -1);
+    assertEquals(a.indexOf(nodes[4]), 2);
+    assertTrue(a.getChild(1) == nodes[2]);
+    assertEquals(a.getChild(3), null);
+
+    // order is kept when re-adding
+    a.addChild(nodes[1]);
+    assertTrue(a.getChild(3) == nodes[1]);
+    a.addChild(nodes[1]); // already a child
+    assertEquals(a.getChildCount(), 4);
+
+    // nodes can only have one parent
+    Node b = new Node();
+    b.addChild(nodes[0]);
+    assertEquals(a.hasChild(nodes[0]), false);
+    assertEquals(b.hasChild(nodes[0]), true);
+    assertEquals(a.getChildCount(), 3);
+
+    // removing while iterating
+    for(Node n : a.getChildNodesSnapshot())
+      a.removeChild(n);
+    assertEquals(a.getChildCount(), 0);
+    assertEquals(a.getChildNodes().size(), 0);
+  }
+
   @Test public void withChild(){
     Node n = new Node();
 
@@ -527,6 +1139,95 @@ public class NodeTest {
     assertEquals(strs.size(), 1);
   }
 
+  @Test public void batch(){
+    Node a = new Node();
+    Node b = new Node();
+
+    List<String> strs = new ArrayList<>();
+    a.positionChangeEvent.whenTriggered(() -> strs.add("a position "+Float.toString(a.getX())+","+Float.toString(a.getY())));
+    a.sizeChangeEvent.whenTriggered(() -> strs.add("a size"));
+    a.transformationEvent.whenTriggered(() -> strs.add("a transformation"));
+    b.rotationChangeEvent.whenTriggered(() -> strs.add("b rotation"));
+    b.transformationEvent.whenTriggered(() -> strs.add("b transformation"));
+
+    Node.batch(() -> {
+      a.setX(10);
+      a.setY(20);
+      a.setSize(100, 100);
+      b.setRotation(0, 0, 1.0f);
+
+      // nested batches only trigger at the end of the outermost batch
+      Node.batch(() -> a.setWidth(200));
+      assertEquals(strs.size(), 0);
+      // values are applied immediately
+      assertEquals(a.getLocalTransformMatrix().m03, 10.0f, 0.0f);
+    });
+
+    assertEquals(String.join(";", strs), "a position 10.0,20.0;a size;a transformation;b rotation;b transformation");
+
+    // begin/commit
+    strs.clear();
+    Node.beginBatch();
+    a.setPosition(0, 0);
+    a.setPosition(1, 1);
+    assertEquals(strs.size(), 0);
+    Node.commitBatch();
+    assertEquals(String.join(";", strs), "a position 1.0,1.0;a transformation");
+
+    // no batch; immediate
+    strs.clear();
+    a.setX(5);
+    assertEquals(strs.size(), 2);
+  }
+
+  @Test public void setDeferChangeEvents(){
+    Node scene = new Node();
+    Node n = new Node();
+    scene.addChild(n);
+
+    List<String> strs = new ArrayList<>();
+    n.positionChangeEvent.whenTriggered(() -> {
+      strs.add("position "+Float.toString(n.getX()));
+      // clamp; a change made by a listener is delivered in the next flush
+      if(n.getX() > 100)
+        n.setX(100);
+    });
+    n.transformationEvent.whenTriggered(() -> strs.add("transformation"));
+
+    Node.setDeferChangeEvents(true);
+
+    try {
+      assertEquals(Node.isDeferChangeEvents(), true);
+      n.setX(50);
+      n.setX(150);
+      n.setY(10);
+      assertEquals(strs.size(), 0);
+
+      scene.updateSubtree(0.016f);
+      assertEquals(String.join(";", strs), "position 150.0;transformation");
+      assertEquals(n.getX(), 100.0f, 0.0f);
+
+      strs.clear();
+      scene.updateSubtree(0.016f);
+      assertEquals(String.join(";", strs), "position 100.0;transformation");
+
+      strs.clear();
+      scene.updateSubtree(0.016f);
+      assertEquals(strs.size(), 0);
+
+      // disabling flushes
+      n.setX(20);
+      Node.setDeferChangeEvents(false);
+      assertEquals(String.join(";", strs), "position 20.0;transformation");
+    } finally {
+      Node.setDeferChangeEvents(false);
+    }
+
+    strs.clear();
+    n.setX(30);
+    assertEquals(strs.size(), 2);
+  }
+
   @Test public void scale(){
     Node n = new Node();
     n.setScale(new PVector(0.5f, 2.0f, 1.0f));
@@ -686,6 +1387,336 @@ public class NodeTest {
     assertEquals(n.toGlobal(new PVector(50,50,0)).y, 0.0f, 0.00001f);
   }
 
+  @Test public void allocationFreeAccessors(){
+    Node parent = new Node();
+    parent.setPosition(100, 50);
+    parent.setScale(2.0f);
+    Node n = new Node();
+    parent.addChild(n);
+    n.setPosition(10, 20, 30);
+    n.setSize(40, 50);
+    n.setRotation(0, 0, 0.5f);
+
+    PVector out = new PVector();
+    assertTrue(n.getPosition(out) == out);
+    assertEquals(out, new PVector(10, 20, 30));
+    assertEquals(n.getSize(out), new PVector(40, 50, 0));
+    assertEquals(n.getScale(out), new PVector(1, 1, 1));
+    assertEquals(n.getRotation(out), new PVector(0, 0, 0.5f));
+    assertEquals(n.getX(), 10.0f, 0.0f);
+    assertEquals(n.getY(), 20.0f, 0.0f);
+    assertEquals(n.getZ(), 30.0f, 0.0f);
+    assertEquals(n.getWidth(), 40.0f, 0.0f);
+    assertEquals(n.getHeight(), 50.0f, 0.0f);
+    assertEquals(n.getRotationZ(), 0.5f, 0.0f);
+    n.setScale(3.0f, 4.0f, 1.0f);
+    assertEquals(n.getScaleX(), 3.0f, 0.0f);
+    assertEquals(n.getScaleY(), 4.0f, 0.0f);
+    assertEquals(n.getScaleZ(), 1.0f, 0.0f);
+
+    // out-parameter conversions give the same results, also when in and out are the same instance
+    PVector p = new PVector(130, 70, 0);
+    assertEquals(n.toLocal(p, out), n.toLocal(p));
+    assertEquals(n.toGlobal(p, out), n.toGlobal(p));
+    assertEquals(n.toLocalVelocity(p, out), n.toLocalVelocity(p));
+    assertEquals(n.getGlobalPosition(out), n.getGlobalPosition());
+    out.set(p);
+    assertEquals(n.toLocal(out, out), n.toLocal(p));
+  }
+
+  @Test public void getGlobalTransformMatrix_cache(){
+    Node scene = new Node();
+    Node parent = new Node();
+    Node child = new Node();
+    scene.addChild(parent);
+    parent.addChild(child);
+    child.setPosition(10, 0);
+
+    PMatrix3D mat = child.getGlobalTransformMatrix();
+    assertTrue(child.getGlobalTransformMatrix() == mat); // cached instance
+    assertEquals(child.getGlobalPosition(), new PVector(10, 0, 0));
+
+    // changes to ancestors invalidate the whole subtree
+    scene.setPosition(100, 0);
+    assertEquals(child.getGlobalPosition(), new PVector(110, 0, 0));
+    parent.setScale(2.0f);
+    assertEquals(child.toGlobal(new PVector(5, 0, 0)), new PVector(130, 0, 0));
+    parent.rotateZ((float)Math.PI);
+    assertEquals(child.toGlobal(new PVector(5, 0, 0)).x, 70.0f, 0.0001f);
+
+    // detached nodes use their own transformation again
+    parent.removeChild(child);
+    assertEquals(child.getParent(), null);
+    assertEquals(child.getGlobalPosition(), new PVector(10, 0, 0));
+    scene.addChild(child);
+    assertEquals(child.getGlobalPosition(), new PVector(110, 0, 0));
+  }
+
+  @Test public void getToLocalMatrix_cache(){
+    Node parent = new Node();
+    Node child = new Node();
+    parent.addChild(child);
+    child.setPosition(10, 20);
+
+    PMatrix3D mat = child.getToLocalMatrix();
+    assertTrue(child.getToLocalMatrix() == mat); // cached instance
+    assertEquals(child.toLocal(new PVector(15, 25, 0)), new PVector(5, 5, 0));
+
+    parent.setScale(2.0f);
+    assertEquals(child.toLocal(new PVector(30, 50, 0)), new PVector(5, 5, 0));
+    assertEquals(child.toLocalVelocity(new PVector(30, 50, 0)), new PVector(15, 25, 0));
+
+    parent.setRotation(new PVector(0, 0, (float)Math.PI));
+    assertEquals(child.toLocalVelocity(new PVector(30, 50, 0)).x, -15.0f, 0.0001f);
+    assertEquals(child.toLocalVelocity(new PVector(30, 50, 0)).y, -25.0f, 0.0001f);
+    assertTrue(child.getToLocalMatrix() == mat);
+  }
+
+  @Test public void getGlobalTransformMatrix_2D(){
+    Node root = new Node();
+    root.setPosition(5, 7);
+    root.setScale(1.5f, 0.5f, 1.0f);
+    Node a = new Node();
+    a.setPosition(10, 20);
+    a.setRotation(0, 0, 0.3f);
+    Node b = new Node();
+    b.setPosition(-3, 4);
+    b.setScale(2.0f, 3.0f, 1.0f);
+    b.setRotation(0, 0, -1.2f);
+    Node c = new Node(); // 3D node in the middle of the chain; falls back to full matrices
+    c.setPosition(1, 2, 3);
+    c.setRotation(0.4f, 0, 0);
+    Node d = new Node();
+    d.setPosition(6, 1);
+    d.setRotation(0, 0, 0.7f);
+    root.addChild(a);
+    a.addChild(b);
+    b.addChild(c);
+    c.addChild(d);
+
+    // the 2D fast path should give the same results as the full 4x4 matrix math
+    PMatrix3D expected = new PMatrix3D();
+    for(Node n : new Node[]{root, a, b, c, d}){
+      PVector pos = n.getPosition(), rot = n.getRotation(), scale = n.getScale();
+      expected.translate(pos.x, pos.y, pos.z);
+      expected.rotateX(rot.x);
+      expected.rotateY(rot.y);
+      expected.rotateZ(rot.z);
+      expected.scale(scale.x, scale.y, scale.z);
+      assertMatrixEquals(n.getGlobalTransformMatrix(), expected);
+
+      PMatrix3D inverse = expected.get();
+      inverse.invert();
+      assertMatrixEquals(n.getToLocalMatrix(), inverse);
+    }
+
+    PVector global = new PVector(40, -25);
+    PVector local = b.toLocal(global, new PVector());
+    PVector back = b.toGlobal(local, new PVector());
+    assertEquals(back.x, global.x, 0.001f);
+    assertEquals(back.y, global.y, 0.001f);
+
+    // zero scale can't be inverted
+    b.setScale(0.0f);
+    assertMatrixEquals(b.getToLocalMatrix(), new PMatrix3D());
+  }
+
+  private static void assertMatrixEquals(PMatrix3D actual, PMatrix3D expected){
+    float[] a = actual.get(null), e = expected.get(null);
+    for(int i=0; i<16; i++)
+      assertEquals(a[i], e[i], 0.001f);
+  }
+
+  @Test public void getRenderList_incremental(){
+    java.util.Random random = new java.util.Random(3);
+    Node scene = new Node();
+    List<Node> nodes = new ArrayList<>();
+    nodes.add(scene);
+
+    for(int i=0; i<50; i++){
+      Node n = new Node();
+      n.setPlane(random.nextInt(4));
+      nodes.get(random.nextInt(nodes.size())).addChild(n);
+      nodes.add(n);
+    }
+
+    List<Node> list = scene.getRenderList();
+
+    for(int i=0; i<500; i++){
+      Node n = nodes.get(1 + random.nextInt(nodes.size() - 1));
+
+      switch(random.nextInt(5)){
+        case 0:
+          n.setPlane(random.nextInt(4));
+          break;
+        case 1:
+          n.setVisible(!n.isVisible());
+          break;
+        case 2:
+          if(n.getParent() != null)
+            n.getParent().removeChild(n);
+          break;
+        default:
+          // attach (or move) to a node that isn't in its own subtree
+          Node parent = nodes.get(random.nextInt(nodes.size()));
+          Node ancestor = parent;
+          while(ancestor != null && ancestor != n)
+            ancestor = ancestor.getParent();
+          if(ancestor == null)
+            parent.addChild(n);
+      }
+
+      // updated in place, without reloading
+      assertTrue(scene.getRenderList() == list);
+      assertEquals(getPrivateField(scene, "bRenderListDirty"), false);
+      assertEquals(list, scene.getOrderedSubtreeList(true));
+    }
+  }
+
+  @Test public void render_order(){
+    Node.setPGraphics(new PGraphics());
+    List<String> strs = new ArrayList<>();
+    Node scene = new Node();
+    LambdaNode a = new LambdaNode();
+    a.setDrawFunc(() -> strs.add("a"));
+    LambdaNode b = new LambdaNode();
+    b.setDrawFunc(() -> strs.add("b"));
+    LambdaNode c = new LambdaNode();
+    c.setDrawFunc(() -> strs.add("c"));
+    scene.addChild(a);
+    scene.addChild(b);
+    a.addChild(c);
+
+    scene.render();
+    assertEquals(String.join(",", strs), "a,c,b");
+
+    strs.clear();
+    scene.render(); // unchanged scene
+    assertEquals(String.join(",", strs), "a,c,b");
+
+    strs.clear();
+    a.setPlane(1.0f); // planes are not inherited by c
+    scene.render();
+    assertEquals(String.join(",", strs), "c,b,a");
+
+    strs.clear();
+    c.setPlane(-1.0f);
+    b.setVisible(false);
+    scene.render();
+    assertEquals(String.join(",", strs), "c,a");
+
+    strs.clear();
+    a.removeChild(c);
+    b.setVisible(true);
+    scene.render();
+    assertEquals(String.join(",", strs), "b,a");
+
+    strs.clear();
+    b.addChild(c);
+    scene.render();
+    assertEquals(String.join(",", strs), "c,b,a");
+  }
+
+  @Test public void getSubtreeBounds(){
+    Node scene = new Node();
+    Node a = new Node();
+    a.setPosition(10, 20);
+    a.setSize(100, 50);
+    Node b = new Node();
+    b.setPosition(200, 0);
+    b.setSize(10, 10);
+    scene.addChild(a);
+    a.addChild(b);
+
+    PVector min = new PVector(), max = new PVector();
+    scene.getSubtreeBounds(min, max);
+    assertEquals(min, new PVector(0, 0, 0)); // scene's own (zero-size) origin
+    assertEquals(max, new PVector(220, 70, 0));
+    assertEquals(scene.subtreeBoundsContain(new PVector(215, 25)), true);
+    assertEquals(a.subtreeBoundsContain(new PVector(5, 25)), false);
+
+    // cached bounds update after transformation, size and hierarchy changes
+    scene.setPosition(-10, 0);
+    scene.getSubtreeBounds(min, max);
+    assertEquals(min, new PVector(-10, 0, 0));
+    assertEquals(max, new PVector(210, 70, 0));
+
+    b.setSize(20, 100);
+    scene.getSubtreeBounds(min, max);
+    assertEquals(max, new PVector(220, 120, 0));
+
+    a.removeChild(b);
+    scene.getSubtreeBounds(min, max);
+    assertEquals(max, new PVector(100, 70, 0));
+
+    a.rotateZ((float)Math.PI);
+    a.getSubtreeBounds(min, max);
+    assertEquals(min.x, -100.0f, 0.0001f);
+    assertEquals(min.y, -30.0f, 0.0001f);
+    assertEquals(max.x, 0.0f, 0.0001f);
+    assertEquals(max.y, 20.0f, 0.0001f);
+    assertEquals(a.subtreeBoundsOverlap(-200, -200, -101, 100), false);
+    assertEquals(a.subtreeBoundsOverlap(-200, -200, -99, 100), true);
+  }
+
+  @Test public void setRenderCulling(){
+    PGraphics pg = new PGraphics();
+    pg.setSize(100, 100);
+    Node.setPGraphics(pg);
+    List<String> strs = new ArrayList<>();
+    Node scene = new Node();
+    LambdaNode a = new LambdaNode();
+    a.setSize(50, 50);
+    a.setDrawFunc(() -> strs.add("a"));
+    LambdaNode b = new LambdaNode();
+    b.setSize(50, 50);
+    b.setPosition(150, 0);
+    b.setDrawFunc(() -> strs.add("b"));
+    LambdaNode c = new LambdaNode();
+    c.setSize(10, 10);
+    c.setDrawFunc(() -> strs.add("c"));
+    scene.addChild(a);
+    scene.addChild(b);
+    b.addChild(c);
+
+    scene.render();
+    assertEquals(String.join(",", strs), "a,b,c");
+
+    strs.clear();
+    scene.setRenderCulling(true);
+    scene.render();
+    assertEquals(String.join(",", strs), "a");
+
+    assertEquals(scene.getRenderCulledCount(), 2);
+
+    strs.clear();
+    c.setPosition(-100, 0); // brings c on-screen, b itself stays off-screen
+    scene.render();
+    assertEquals(String.join(",", strs), "a,c");
+    assertEquals(scene.getRenderCulledCount(), 1);
+
+    strs.clear();
+    scene.setRenderViewport(100, 0, 100, 100);
+    scene.render();
+    assertEquals(String.join(",", strs), "b");
+    assertEquals(scene.getRenderCulledCount(), 3); // scene's own origin is outside of the viewport as well
+
+    // content outside of clipping parent
+    strs.clear();
+    scene.resetRenderViewport();
+    c.setPosition(0, 0);
+    b.removeChild(c);
+    a.addChild(c);
+    a.setClipContent(true);
+    scene.render();
+    assertEquals(String.join(",", strs), "a,c");
+    c.setPosition(60, 0); // on-screen, but outside of a
+    strs.clear();
+    scene.render();
+    assertEquals(String.join(",", strs), "a");
+    assertEquals(scene.getRenderCulledCount(), 2);
+  }
+
   @Test public void addOnTop(){
     Node scene = new Node();
     scene.setPlane(11.0f);
@@ -0,0 +1,148 @@
+package com.fuse.ui;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import processing.core.PGraphics;
+import processing.core.PVector;
+
+public class SceneArenaTest {
+
+  @Test public void createElement(){
+    SceneArena arena = new SceneArena(4);
+    int a = arena.createElement();
+    int b = arena.createElement(a);
+    assertEquals(arena.getElementCount(), 2);
+    assertEquals(arena.getElementParent(b), a);
+
+    // grows beyond initial capacity
+    for(int i=0; i<100; i++)
+      arena.createElement(b);
+    assertEquals(arena.getElementCount(), 102);
+
+    // removing an element removes its nested elements too and invalidates their handles
+    arena.removeElement(b);
+    assertEquals(arena.getElementCount(), 1);
+    assertEquals(arena.isValid(b), false);
+    assertEquals(arena.isValid(a), true);
+
+    // reused slots get new handles
+    int c = arena.createElement();
+    assertEquals(arena.isValid(c), true);
+    assertEquals(arena.isValid(b), false);
+    assertEquals(c == b, false);
+  }
+
+  @Test public void removeElement(){
+    SceneArena arena = new SceneArena(4);
+    int a = arena.createElement();
+    int b = arena.createElement(a);
+    int c = arena.createElement(b);
+    int d = arena.createElement(c);
+    int e = arena.createElement(a);
+
+    // reparented elements are removed with their new parent, not their old one
+    arena.setElementParent(c, e);
+    arena.removeElement(b);
+    assertEquals(arena.getElementCount(), 4);
+    assertEquals(arena.isValid(c), true);
+    assertEquals(arena.isValid(d), true);
+
+    arena.removeElement(e);
+    assertEquals(arena.getElementCount(), 1);
+    assertEquals(arena.isValid(c), false);
+    assertEquals(arena.isValid(d), false);
+
+    // reused slots don't inherit nested elements of the removed elements
+    int f = arena.createElement(a);
+    int g = arena.createElement();
+    int h = arena.createElement(f);
+    arena.removeElement(g);
+    assertEquals(arena.isValid(f), true);
+    assertEquals(arena.isValid(h), true);
+
+    // deeply nested chains
+    int parent = h;
+    for(int i=0; i<10000; i++)
+      parent = arena.createElement(parent);
+    assertEquals(arena.getElementCount(), 10003);
+    arena.removeElement(f);
+    assertEquals(arena.getElementCount(), 1);
+    assertEquals(arena.isValid(parent), false);
+    assertEquals(arena.isValid(a), true);
+  }
+
+  @Test public void getElementAt(){
+    Node scene = new Node();
+    SceneArena arena = new SceneArena();
+    arena.setPosition(100, 0);
+    arena.setSize(1000, 1000);
+    scene.addChild(arena);
+
+    int parent = arena.createElement();
+    arena.setElementPosition(parent, 10, 10);
+    arena.setElementScale(parent, 2, 2);
+    int child = arena.createElement(parent);
+    arena.setElementPosition(child, 10, 0);
+    arena.setElementSize(child, 10, 10);
+    int other = arena.createElement();
+    arena.setElementPosition(other, 35, 15);
+    arena.setElementSize(other, 10, 10);
+
+    // child covers 30-50 (x) and 10-30 (y) in arena space
+    assertEquals(arena.getElementAt(new PVector(132, 12)), child);
+    assertEquals(arena.getElementAt(new PVector(140, 20)), other); // created later, same plane
+    arena.setElementPlane(child, 1);
+    assertEquals(arena.getElementAt(new PVector(140, 20)), child);
+    assertEquals(arena.getElementAt(new PVector(129, 12)), SceneArena.NONE);
+
+    // hidden parents hide their nested elements
+    arena.setElementVisible(parent, false);
+    assertEquals(arena.getElementAt(new PVector(132, 12)), SceneArena.NONE);
+    arena.setElementVisible(parent, true);
+
+    arena.setElementRotation(parent, (float)Math.PI * 0.5f);
+    PVector pos = arena.getElementArenaPosition(child, new PVector());
+    assertEquals(pos.x, 10.0f, 0.0001f);
+    assertEquals(pos.y, 30.0f, 0.0001f);
+    assertEquals(arena.getElementAt(new PVector(100 + 5, 35)), child);
+  }
+
+  @Test public void draw(){
+    PGraphics pg = new PGraphics();
+    pg.setSize(100, 100);
+    Node.setPGraphics(pg);
+
+    List<Integer> drawn = new ArrayList<>();
+    SceneArena arena = new SceneArena(){
+      @Override protected void drawElement(int handle, float width, float height){
+        drawn.add(handle);
+      }
+    };
+
+    int a = arena.createElement();
+    arena.setElementSize(a, 10, 10);
+    arena.setElementPlane(a, 2);
+    int b = arena.createElement();
+    arena.setElementSize(b, 10, 10);
+    int offscreen = arena.createElement();
+    arena.setElementPosition(offscreen, 200, 0);
+    arena.setElementSize(offscreen, 10, 10);
+
+    arena.render();
+    assertEquals(drawn.size(), 2);
+    assertEquals(drawn.get(0).intValue(), b); // bottom plane first
+    assertEquals(drawn.get(1).intValue(), a);
+    assertEquals(arena.getCulledElementCount(), 1);
+
+    // moving the arena changes what's on screen
+    drawn.clear();
+    arena.setPosition(-150, 0);
+    arena.render();
+    assertEquals(drawn.size(), 1);
+    assertEquals(drawn.get(0).intValue(), offscreen);
+  }
+}
@@ -353,6 +353,68 @@ public class TouchManagerTest {
     assertEquals(strings.get(0), "#0 CLICK on <NO NODE> at position: 14.0, 10.0");
   }
 
+  @Test public void enableSpatialIndex(){
+    Node scene = new Node();
+    scene.setSize(1000, 1000);
+    Node container = new Node();
+    container.setPosition(100, 100);
+    scene.addChild(container);
+
+    // overlapping tiles, some with raised planes, a rotated one and a clipped one
+    for(int i=0; i<40; i++){
+      Node tile = new Node("tile"+Integer.toString(i));
+      tile.setPosition((i % 8) * 90, (i / 8) * 90);
+      tile.setSize(120, 120);
+      if(i % 5 == 0) tile.setPlane(1.0f);
+      if(i % 7 == 0) tile.setInteractive(false);
+      container.addChild(tile);
+    }
+
+    Node rotated = new Node("rotated");
+    rotated.setPosition(400, 400);
+    rotated.setSize(200, 50);
+    rotated.setRotation(new PVector(0, 0, 0.7f));
+    rotated.setPlane(2.0f);
+    scene.addChild(rotated);
+
+    Node clipper = new Node("clipper");
+    clipper.setPosition(600, 0);
+    clipper.setSize(100, 100);
+    clipper.setClipContent(true);
+    clipper.setPlane(3.0f);
+    scene.addChild(clipper);
+    Node clipped = new Node("clipped");
+    clipped.setSize(300, 300);
+    clipped.setPlane(3.0f);
+    clipper.addChild(clipped);
+
+    TouchManager plain = new TouchManager(scene);
+    TouchManager indexed = new TouchManager(scene);
+    indexed.enableSpatialIndex(64.0f);
+    assertEquals(indexed.getSpatialIndex().size(), 45);
+
+    for(int step=0; step<3; step++){
+      for(float x=-10; x<1000; x+=37){
+        for(float y=-10; y<1000; y+=41){
+          PVector p = new PVector(x,y,0);
+          assertEquals(indexed.getNodeForTouchPosition(p), plain.getNodeForTouchPosition(p));
+        }
+      }
+
+      // changes are picked up by the index
+      container.setPosition(container.getPosition().x + 33, 80);
+      container.getChildNodes().get(3).setSize(400, 10);
+      container.removeChild(container.getChildNodes().get(5));
+      clipped.addChild(new Node("grandchild").setPlane(4.0f));
+      clipped.getChildNodes().get(0).setSize(50, 50);
+      scene.setScale(0.9f);
+    }
+
+    assertEquals(indexed.getSpatialIndex().size(), 45);
+    indexed.disableSpatialIndex();
+    assertEquals(indexed.isSpatialIndexEnabled(), false);
+  }
+
   @Ignore @Test public void doubleClick(){
     System.out.println("DOUBLECLICK TEST");
     TouchManager man = new TouchManager();
@@ -0,0 +1,34 @@
+package com.fuse.ui;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+import processing.core.PVector;
+
+public class VirtualGridNodeTest {
+
+  @Test public void layout(){
+    VirtualGridNode<Node> grid = new VirtualGridNode<>(() -> new Node(), (Node n, int index) -> {
+      n.setName("item"+Integer.toString(index));
+    });
+
+    grid.setCellSize(100, 100);
+    grid.setSize(350, 300);
+    grid.setItemCount(1000);
+
+    assertEquals(grid.getLineCellCount(), 3);
+    assertEquals(grid.getBoundItemCount(), 12);
+    assertEquals(grid.getContentLength(), 33400.0f, 0.0001f);
+
+    grid.setScrollOffset(1000.0f);
+    assertEquals(grid.getFirstBoundIndex(), 30);
+    assertEquals(grid.getBoundItemCount(), 12);
+    assertEquals(grid.getItemNodeCount(), 12);
+    assertEquals(grid.getItemNode(31).getName(), "item31");
+    assertEquals(grid.getItemNode(31).getPosition(), new PVector(100, 1000, 0));
+
+    grid.setHorizontal(true);
+    assertEquals(grid.getLineCellCount(), 3);
+    assertEquals(grid.getItemNode(31).getPosition(), new PVector(1000, 100, 0));
+  }
+}
@@ -0,0 +1,131 @@
+package com.fuse.ui;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import processing.core.PVector;
+import com.fuse.ui.extensions.Swiper;
+
+public class VirtualListNodeTest {
+
+  @Test public void setItemCount(){
+    List<String> strings = new ArrayList<>();
+    VirtualListNode<Node> list = new VirtualListNode<>(() -> new Node(), (Node n, int index) -> {
+      n.setName("item"+Integer.toString(index));
+    });
+
+    list.setItemLength(50.0f);
+    list.setSize(300, 500);
+    list.setItemCount(100000);
+
+    // only the items within the viewport get a node
+    assertEquals(list.getBoundItemCount(), 11);
+    assertEquals(list.getItemNodeCount(), 11);
+    assertEquals(list.getContentNode().getChildCount(), 11);
+    assertEquals(list.getItemNode(3).getName(), "item3");
+    assertEquals(list.getItemNode(3).getPosition(), new PVector(0, 150, 0));
+    assertEquals(list.getItemNode(3).getSize(), new PVector(300, 50, 0));
+    assertEquals(list.getContentLength(), 5000000.0f, 0.0001f);
+
+    // scrolling rebinds the existing nodes
+    list.setScrollOffset(1000000.0f);
+    assertEquals(list.getFirstBoundIndex(), 20000);
+    assertEquals(list.getBoundItemCount(), 11);
+    assertEquals(list.getItemNodeCount(), 11);
+    assertEquals(list.getItemNode(3), null);
+    assertEquals(list.getItemNode(20001).getName(), "item20001");
+    assertEquals(list.getItemNode(20001).getPosition(), new PVector(0, 1000050, 0));
+
+    // overscan
+    list.setOverscan(100.0f);
+    assertEquals(list.getFirstBoundIndex(), 19998);
+    assertEquals(list.getBoundItemCount(), 15);
+
+    // item count changes
+    list.setItemCount(20000);
+    assertEquals(list.getBoundItemCount(), 2);
+    list.setItemCount(0);
+    assertEquals(list.getBoundItemCount(), 0);
+    assertEquals(list.getContentNode().getChildCount(), 0);
+  }
+
+  @Test public void setMeasureItems(){
+    VirtualListNode<Node> list = new VirtualListNode<>(() -> new Node(), (Node n, int index) -> {
+      n.setSize(100, index % 2 == 0 ? 100 : 20);
+    });
+
+    list.setItemLength(50.0f);
+    list.setMeasureItems(true);
+    list.setSize(100, 200);
+    list.setItemCount(1000);
+
+    // measured while laid out
+    assertEquals(list.getItemOffset(1), 100.0f, 0.0001f);
+    assertEquals(list.getItemOffset(2), 120.0f, 0.0001f);
+    assertEquals(list.getItemOffset(3), 220.0f, 0.0001f);
+    assertEquals(list.getItemNode(3).getPosition(), new PVector(0, 220, 0));
+    assertEquals(list.getItemIndexAt(110.0f), 1);
+    assertEquals(list.getItemIndexAt(120.0f), 2);
+
+    // items 0-4 were bound (and measured) before the first measurements were known,
+    // unmeasured items use the fixed length
+    assertEquals(list.getContentLength(), 340.0f + 995*50.0f, 0.0001f);
+  }
+
+  @Test public void enableSwiper(){
+    VirtualListNode<Node> list = new VirtualListNode<>(() -> new Node(), (Node n, int index) -> {});
+    list.setItemLength(50.0f);
+    list.setSize(300, 500);
+    list.setItemCount(100);
+
+    // scrolled beyond the end; snaps back within the limits
+    list.setScrollOffset(5000.0f);
+    Swiper swiper = list.enableSwiper();
+    assertEquals(swiper.getScrollableNode(), list.getContentNode());
+    for(int i=0; i<100; i++)
+      list.updateSubtree(0.1f);
+
+    assertEquals(list.getScrollOffset(), 4500.0f, 0.0001f);
+    assertEquals(list.getFirstBoundIndex(), 90);
+  }
+
+  @Test public void setWrapping(){
+    List<String> strings = new ArrayList<>();
+    VirtualListNode<Node> list = new VirtualListNode<>(() -> new Node(), (Node n, int index) -> {
+      n.setName("item"+Integer.toString(index));
+      strings.add(n.getName());
+    });
+
+    list.setHorizontal(true);
+    list.setItemLength(100.0f);
+    list.setSize(300, 100);
+    list.setItemCount(5);
+    list.setWrapping(true);
+    assertEquals(list.getBoundItemCount(), 4);
+
+    // scrolling before the first item shows the last items
+    list.setScrollOffset(-150.0f);
+    assertEquals(list.getFirstBoundIndex(), -2);
+    assertEquals(list.getBoundItemCount(), 4);
+    assertEquals(list.getItemNodeCount(), 4);
+    assertEquals(list.getItemNode(4).getName(), "item4");
+    assertEquals(list.getItemNode(4).getPosition(), new PVector(-100, 0, 0));
+    assertEquals(list.getItemNode(2), null);
+
+    // scrolling whole cycles doesn't rebind anything
+    strings.clear();
+    list.setScrollOffset(350.0f);
+    list.setScrollOffset(100350.0f);
+    assertEquals(strings.size(), 0);
+    assertEquals(list.getItemNode(4).getPosition(), new PVector(100400, 0, 0));
+
+    Swiper swiper = list.enableSwiper();
+    assertEquals(swiper.getWrapLength(), new PVector(500, 0, 0));
+    swiper.update(0.1f);
+    assertEquals(list.getScrollOffset(), 350.0f, 0.0001f);
+    assertEquals(strings.size(), 0);
+  }
+}
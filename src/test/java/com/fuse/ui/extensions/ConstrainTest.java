@@ -151,4 +151,39 @@ public class ConstrainTest {
     c.enable();
     assertTrue(c.isEnabled());
   }
+
+  @Test public void canSleep(){
+    Node parent = new Node();
+    parent.setSize(100, 100);
+    Node n = new Node();
+    n.setSize(200, 200);
+    parent.addChild(n);
+    Constrain c = Constrain.enableFor(n);
+    c.setFillParent(true);
+    assertEquals(c.isAwake(), true);
+
+    // nothing to do; falls asleep after its first update
+    parent.updateSubtree(0.1f);
+    assertEquals(c.isAwake(), false);
+
+    // moving the node out of the parent wakes it up, until it's back in place
+    n.setPosition(50, 0);
+    assertEquals(c.isAwake(), true);
+    for(int i=0; i<100; i++)
+      parent.updateSubtree(0.1f);
+    assertEquals(n.getPosition(), new PVector(0, 0, 0));
+    assertEquals(c.isAwake(), false);
+
+    n.setPosition(-100, 0);
+    parent.updateSubtree(0.1f);
+    assertEquals(c.isAwake(), false);
+
+    // so does resizing the parent
+    parent.setSize(150, 100);
+    assertEquals(c.isAwake(), true);
+    for(int i=0; i<100; i++)
+      parent.updateSubtree(0.1f);
+    assertEquals(n.getX(), -50.0f, 0.1f);
+    assertEquals(c.isAwake(), false);
+  }
 }
@@ -75,4 +75,59 @@ public class SwiperTest {
 
     assertEquals(s.getScrollableNode().getPosition(), new PVector(10, 0, 0));
   }
+
+  @Test public void canSleep(){
+    Node areaNode = new Node();
+    Node scrollerNode = new Node();
+    areaNode.addChild(scrollerNode);
+    Swiper s = Swiper.enableFor(areaNode, scrollerNode);
+
+    areaNode.updateSubtree(0.1f);
+    assertEquals(s.isAwake(), false);
+
+    s.setSnapPosition(new PVector(-100, 0, 0));
+    assertEquals(s.isAwake(), true);
+
+    for(int i=0; i<100; i++)
+      areaNode.updateSubtree(0.1f);
+
+    assertEquals(scrollerNode.getPosition(), new PVector(-100, 0, 0));
+    assertEquals(s.isSnapping(), false);
+    assertEquals(s.isAwake(), false);
+  }
+
+  @Test public void setWrapLength(){
+    Node areaNode = new Node();
+    areaNode.setSize(100, 100);
+    Node scrollerNode = new Node();
+    Swiper s = Swiper.enableFor(areaNode, scrollerNode);
+    s.setWrapLength(500, 0);
+
+    for(int i=0; i<7; i++){
+      s.step(1, 0);
+      for(int j=0; j<100; j++)
+        s.update(0.1f);
+    }
+
+    // the scroller stays within the wrap length and steps are reported modulo the number of steps
+    assertEquals(scrollerNode.getPosition(), new PVector(-200, 0, 0));
+    assertEquals(s.getStepPosition(), new PVector(2, 0, 0));
+    assertEquals(s.stepPositionState.get(), new PVector(2, 0, 0));
+
+    // moves to the nearest equivalent step
+    s.setStepPosition(0, 0);
+    for(int j=0; j<100; j++)
+      s.update(0.1f);
+
+    assertEquals(scrollerNode.getPosition(), new PVector(0, 0, 0));
+    assertEquals(s.stepPositionState.get(), new PVector(0, 0, 0));
+
+    s.setStepPosition(4, 0);
+    assertEquals(s.getTargetPosition(), new PVector(100, 0, 0)); // one step back
+    for(int j=0; j<100; j++)
+      s.update(0.1f);
+
+    assertEquals(scrollerNode.getPosition(), new PVector(-400, 0, 0));
+    assertEquals(s.stepPositionState.get(), new PVector(4, 0, 0));
+  }
 }
@@ -0,0 +1,122 @@
+package com.fuse.ui.extensions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import processing.core.PVector;
+import com.fuse.ui.Node;
+import com.fuse.ui.TouchManager;
+
+public class TransformerExtensionTest {
+
+  private static float transformFor(float seconds, int updates, float smoothingFrameRate){
+    Node n = new Node();
+    TransformerExtension ext = new TransformerExtension();
+    ext.setSmoothingFrameRate(smoothingFrameRate);
+    n.use(ext);
+    ext.transformPosition(new PVector(1000, 0, 0));
+
+    for(int i=0; i<updates; i++)
+      ext.update(seconds / updates);
+
+    return n.getX();
+  }
+
+  @Test public void setSmoothingFrameRate(){
+    // per-update smoothing depends on the update rate
+    assertEquals(transformFor(0.25f, 15, 0.0f) > transformFor(0.25f, 5, 0.0f) + 100.0f, true);
+
+    // time-based smoothing doesn't
+    float x60 = transformFor(0.25f, 15, 60.0f);
+    assertEquals(transformFor(0.25f, 5, 60.0f), x60, 0.01f);
+    assertEquals(transformFor(0.25f, 1, 60.0f), x60, 0.01f);
+
+    // and matches per-update smoothing at its frame rate
+    assertEquals(transformFor(0.25f, 15, 0.0f), x60, 0.01f);
+  }
+
+  /**
+   * @return long - bytes allocated by the current thread while running func the given number of times;
+   * the lowest of a few rounds, as JIT compilation (deoptimization) can incidentally allocate as well
+   */
+  private static long allocatedBytes(Runnable func, int count){
+    com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+    long id = Thread.currentThread().getId();
+    long result = Long.MAX_VALUE;
+
+    for(int round=0; round<5 && result > 0; round++){
+      // measure the measuring itself, so that can be subtracted
+      long before = bean.getThreadAllocatedBytes(id);
+      long overhead = bean.getThreadAllocatedBytes(id) - before;
+      before = bean.getThreadAllocatedBytes(id);
+
+      for(int i=0; i<count; i++)
+        func.run();
+
+      result = Math.min(result, bean.getThreadAllocatedBytes(id) - before - overhead);
+    }
+
+    return result;
+  }
+
+  @Test public void update_allocationFree(){
+    assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+
+    // smoothed transformations
+    Node n = new Node();
+    TransformerExtension ext = new TransformerExtension();
+    ext.setSmoothValue(50.0f);
+    ext.setSmoothingFrameRate(60.0f);
+    ext.setMaxTransformationTime(null);
+    n.use(ext);
+    ext.transformPosition(new PVector(100000, 0, 0));
+    ext.transformRotation(new PVector(0, 0, 100.0f));
+    ext.transformScale(new PVector(100, 100, 1));
+    ext.transformSize(new PVector(100000, 100000, 0));
+    assertEquals(allocatedBytes(() -> ext.update(1.0f / 60.0f), 100), 0l);
+    assertEquals(ext.isTransformingPosition(), true);
+    assertEquals(ext.getPositionTransformationVelocity(new PVector()).x > 0.0f, true);
+
+    // dragging
+    Node scene = new Node();
+    scene.setSize(1000, 1000);
+    TouchManager man = new TouchManager(scene);
+    Node dragNode = new Node();
+    dragNode.setSize(100, 100);
+    scene.addChild(dragNode);
+    Draggable draggable = Draggable.enableFor(dragNode);
+    man.touchDown(0, new PVector(10, 10, 0));
+    man.touchMove(0, new PVector(500, 300, 0));
+    assertEquals(allocatedBytes(() -> draggable.update(1.0f / 60.0f), 100), 0l);
+    assertEquals(dragNode.getX(), 490.0f, 0.1f);
+
+    // swiping
+    Node areaNode = new Node();
+    areaNode.setSize(300, 300);
+    areaNode.setPosition(0, 500);
+    scene.addChild(areaNode);
+    Node scrollerNode = new Node();
+    areaNode.addChild(scrollerNode);
+    Swiper swiper = Swiper.enableFor(areaNode, scrollerNode);
+    man.touchDown(1, new PVector(250, 510, 0));
+    man.touchMove(1, new PVector(150, 510, 0));
+    assertEquals(allocatedBytes(() -> swiper.update(1.0f / 60.0f), 100), 0l);
+    assertEquals(scrollerNode.getX(), -100.0f, 0.1f);
+
+    // pinching
+    Node pinchNode = new Node();
+    pinchNode.setSize(200, 200);
+    pinchNode.setPosition(600, 0);
+    scene.addChild(pinchNode);
+    PinchZoom pinchZoom = PinchZoom.enableFor(pinchNode);
+    man.touchDown(2, new PVector(650, 100, 0));
+    man.touchDown(3, new PVector(750, 100, 0));
+    man.touchMove(3, new PVector(850, 100, 0));
+    assertEquals(pinchZoom.isPinching(), true);
+    assertEquals(allocatedBytes(() -> pinchZoom.update(1.0f / 60.0f), 100), 0l);
+    assertEquals(pinchNode.getScaleX(), 2.0f, 0.01f);
+  }
+}